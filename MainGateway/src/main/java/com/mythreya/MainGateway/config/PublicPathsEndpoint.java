@@ -0,0 +1,34 @@
+package com.mythreya.MainGateway.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.mythreya.MainGateway.service.PublicPathRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lists and replaces the public paths. Exposed over JMX only: actuator web requests bypass the
+ * gateway filters, and replacing the paths can switch off session validation.
+ */
+@Component
+@Endpoint(id = "publicpaths")
+@RequiredArgsConstructor
+public class PublicPathsEndpoint {
+    private final PublicPathRegistry publicPathRegistry;
+
+    @ReadOperation
+    public List<String> publicPaths() {
+        return publicPathRegistry.getPaths();
+    }
+
+    @WriteOperation
+    public List<String> reload(List<String> paths) {
+        publicPathRegistry.reload(paths);
+        return publicPathRegistry.getPaths();
+    }
+}
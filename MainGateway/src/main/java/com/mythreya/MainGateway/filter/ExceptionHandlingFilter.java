@@ -2,21 +2,15 @@ package com.mythreya.MainGateway.filter;
 
 
 
-import org.springframework.http.MediaType;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
 import com.mythreya.MainGateway.exception.GatewayException;
-import com.mythreya.MainGateway.model.ErrorResponse;
+import com.mythreya.MainGateway.util.ErrorResponseWriter;
 
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
@@ -29,24 +23,13 @@ public class ExceptionHandlingFilter implements GlobalFilter, Ordered {
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         return chain.filter(exchange)
                 .onErrorResume(throwable -> {
-                    ServerHttpResponse response = exchange.getResponse();
-                    response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
-                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-                    ErrorResponse errorResponse = ErrorResponse.builder()
-                            .timestamp(LocalDateTime.now())
-                            .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                            .error("Gateway Error")
-                            .message(throwable instanceof GatewayException ? 
-                                    throwable.getMessage() : 
-                                    "An unexpected error occurred")
-                            .path(exchange.getRequest().getPath().toString())
-                            .requestId(exchange.getRequest().getId())
-                            .build();
-
-                    byte[] bytes = errorResponse.toString().getBytes(StandardCharsets.UTF_8);
-                    DataBuffer buffer = response.bufferFactory().wrap(bytes);
-                    return response.writeWith(Mono.just(buffer));
+                    if (exchange.getResponse().isCommitted()) {
+                        return Mono.error(throwable);
+                    }
+                    String message = throwable instanceof GatewayException ?
+                            throwable.getMessage() :
+                            "An unexpected error occurred";
+                    return ErrorResponseWriter.write(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Gateway Error", message);
                 });
     }
 
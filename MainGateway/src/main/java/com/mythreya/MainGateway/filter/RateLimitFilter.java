@@ -0,0 +1,59 @@
+package com.mythreya.MainGateway.filter;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties.RouteRateLimit;
+import com.mythreya.MainGateway.service.RateLimiter;
+import com.mythreya.MainGateway.util.GatewayUtil;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Charges the client IP's bucket before anything else runs. The per-user bucket is charged by
+ * {@link UserRateLimitFilter} once the session has been validated, since the X-Username header
+ * alone is unauthenticated and would let anyone exhaust another user's bucket.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        RouteRateLimit route = rateLimiter.limitFor(path);
+
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null) {
+            String ip = remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+            long wait = rateLimiter.tryAcquire(route.getPath() + "|ip|" + ip, route.getLimit());
+            if (wait > 0) {
+                return rejected(exchange, wait);
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+
+    static Mono<Void> rejected(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return GatewayUtil.tooManyRequests(exchange, GatewayUtil.RATE_LIMIT_EXCEEDED);
+    }
+
+    @Override
+    public int getOrder() {
+        return -3; // Shed rejected requests before exception handling and session validation
+    }
+}
@@ -1,18 +1,22 @@
 package com.mythreya.MainGateway.filter;
 
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 
 import com.mythreya.MainGateway.model.ApiResponse;
 import com.mythreya.MainGateway.model.SessionValidationRequest;
+import com.mythreya.MainGateway.service.PublicPathRegistry;
+import com.mythreya.MainGateway.service.SessionRevocationList;
+import com.mythreya.MainGateway.service.SessionTokenVerifier;
+import com.mythreya.MainGateway.service.SessionTokenVerifier.SessionToken;
+import com.mythreya.MainGateway.service.SessionValidationCache;
 import com.mythreya.MainGateway.util.GatewayUtil;
 
 
@@ -22,42 +26,92 @@ import reactor.core.publisher.Mono;
 @Component
 @RequiredArgsConstructor
 public class SessionValidationFilter implements GlobalFilter, Ordered {
+    private static final String LOGOUT_PATH = "/api/login/logout";
+    /** Exchange attribute holding the username of a validated session. */
+    public static final String AUTHENTICATED_USERNAME_ATTR = SessionValidationFilter.class.getName() + ".username";
+
     private final WebClient.Builder webClientBuilder;
-    private final List<String> publicPaths = Arrays.asList(
-        "/api/register/start",
-        "/api/register/verify-otp",
-        "/api/register/validate-username",
-        "/api/register/initiate-payment",
-        "/api/register/complete",
-        "/api/login/send-otp",
-        "/api/login/verify",
-        "/api/login/continue-with-oldest-logout"
-    );
+    private final SessionValidationCache sessionValidationCache;
+    private final SessionTokenVerifier sessionTokenVerifier;
+    private final SessionRevocationList sessionRevocationList;
+    private final PublicPathRegistry publicPathRegistry;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getPath().toString();
+
+        if (sessionTokenVerifier.isEnabled()) {
+            exchange.getResponse().beforeCommit(() -> {
+                sessionRevocationList.observeVersion(
+                    exchange.getResponse().getHeaders().getFirst(SessionRevocationList.VERSION_HEADER));
+                return Mono.empty();
+            });
+        }
         
-        if (GatewayUtil.isPublicPath(path, publicPaths)) {
+        if (publicPathRegistry.isPublicPath(path)) {
             return chain.filter(exchange);
         }
 
+        String sessionToken = exchange.getRequest().getHeaders().getFirst("X-Session-Token");
+        if (sessionToken != null && sessionTokenVerifier.isEnabled()) {
+            return filterWithToken(exchange, chain, path, sessionToken);
+        }
+
         String sessionId = exchange.getRequest().getHeaders().getFirst("X-Session-ID");
         String username = exchange.getRequest().getHeaders().getFirst("X-Username");
 
         if (sessionId == null || username == null) {
-            return GatewayUtil.unauthorized(exchange, "Authentication required");
+            return GatewayUtil.unauthorized(exchange, GatewayUtil.AUTHENTICATION_REQUIRED);
         }
 
-        return validateSession(username, sessionId)
+        return sessionValidationCache.validate(username, sessionId, () -> validateSession(username, sessionId))
             .flatMap(isValid -> {
                 if (isValid) {
+                    exchange.getAttributes().put(AUTHENTICATED_USERNAME_ATTR, username);
+                    if (LOGOUT_PATH.equals(path)) {
+                        // Dropped only once the logout has run downstream; a validation in between
+                        // would otherwise re-cache the session as valid for the full TTL
+                        return chain.filter(exchange)
+                            .doFinally(signal -> sessionValidationCache.invalidate(username, sessionId));
+                    }
                     return chain.filter(exchange);
                 }
-                return GatewayUtil.unauthorized(exchange, "Invalid or expired session");
+                return GatewayUtil.unauthorized(exchange, GatewayUtil.INVALID_SESSION);
             });
     }
 
+    private Mono<Void> filterWithToken(ServerWebExchange exchange, GatewayFilterChain chain,
+                                       String path, String sessionToken) {
+        SessionToken token = sessionTokenVerifier.verify(sessionToken);
+        String username = exchange.getRequest().getHeaders().getFirst("X-Username");
+        if (token == null || (username != null && !username.equals(token.username()))) {
+            return GatewayUtil.unauthorized(exchange, GatewayUtil.INVALID_SESSION);
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+            .header("X-Username", token.username())
+            .header("X-Session-ID", token.sessionId())
+            .build();
+        ServerWebExchange authenticated = exchange.mutate().request(request).build();
+        authenticated.getAttributes().put(AUTHENTICATED_USERNAME_ATTR, token.username());
+
+        if (!sessionRevocationList.isLoaded()) {
+            // Revocations are unknown until the first fetch succeeds, so ask the registration service
+            return sessionValidationCache.validate(token.username(), token.sessionId(),
+                    () -> validateSession(token.username(), token.sessionId()))
+                .flatMap(isValid -> isValid
+                    ? chain.filter(authenticated)
+                    : GatewayUtil.unauthorized(exchange, GatewayUtil.INVALID_SESSION));
+        }
+        if (sessionRevocationList.isRevoked(token.sessionId())) {
+            return GatewayUtil.unauthorized(exchange, GatewayUtil.INVALID_SESSION);
+        }
+        if (LOGOUT_PATH.equals(path)) {
+            sessionRevocationList.revokeLocally(token.sessionId(), token.expiresAtEpochSeconds());
+        }
+        return chain.filter(authenticated);
+    }
+
     private Mono<Boolean> validateSession(String username, String sessionId) {
         SessionValidationRequest request = new SessionValidationRequest(username, sessionId);
         return webClientBuilder.build()
@@ -0,0 +1,41 @@
+package com.mythreya.MainGateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties.RouteRateLimit;
+import com.mythreya.MainGateway.service.RateLimiter;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Charges the per-user bucket for requests whose session {@link SessionValidationFilter} has
+ * validated. Public paths carry no verified identity and are limited by client IP only.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRateLimitFilter implements GlobalFilter, Ordered {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String username = exchange.getAttribute(SessionValidationFilter.AUTHENTICATED_USERNAME_ATTR);
+        if (username != null) {
+            RouteRateLimit route = rateLimiter.limitFor(exchange.getRequest().getPath().value());
+            long wait = rateLimiter.tryAcquire(route.getPath() + "|user|" + username, route.getLimit());
+            if (wait > 0) {
+                return RateLimitFilter.rejected(exchange, wait);
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return 0; // After SessionValidationFilter, still before routing
+    }
+}
@@ -5,14 +5,39 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
-@ConfigurationProperties(prefix = "custom.gateway")
+@ConfigurationProperties(prefix = "gateway")
 @Data
 public class CustomGatewayProperties {
     private String registrationServiceUrl;
     private List<String> publicPaths;
     private int rateLimit;
+    private long rateLimitPeriodSeconds = 60;
+    private List<RouteRateLimit> routeRateLimits = new ArrayList<>();
     private int sessionTimeoutMinutes;
+    private SessionCache sessionCache = new SessionCache();
+    private SessionToken sessionToken = new SessionToken();
+
+    @Data
+    public static class RouteRateLimit {
+        private String path;
+        private int limit;
+    }
+
+    @Data
+    public static class SessionCache {
+        private long ttlSeconds = 30;
+        private long negativeTtlSeconds = 5;
+        private int maxEntries = 50000;
+    }
+
+    @Data
+    public static class SessionToken {
+        private boolean enabled = false;
+        private String secret;
+        private long revocationRefreshSeconds = 60;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.mythreya.MainGateway.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+import com.mythreya.MainGateway.util.PublicPathMatcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the compiled public-path matcher. The configured paths are compiled once at startup
+ * and recompiled whenever they are replaced through the publicpaths actuator endpoint. A public
+ * path skips session validation for everything under it, so empty and root prefixes are refused.
+ */
+@Slf4j
+@Component
+public class PublicPathRegistry {
+    private final CustomGatewayProperties properties;
+    private volatile PublicPathMatcher matcher;
+
+    public PublicPathRegistry(CustomGatewayProperties properties) {
+        this.properties = properties;
+        this.matcher = PublicPathMatcher.compile(validated(properties.getPublicPaths()));
+        log.info("Compiled {} public paths", matcher.getPaths().size());
+    }
+
+    public boolean isPublicPath(String path) {
+        return matcher.matches(path);
+    }
+
+    public List<String> getPaths() {
+        return matcher.getPaths();
+    }
+
+    public void reload(List<String> paths) {
+        PublicPathMatcher compiled = PublicPathMatcher.compile(validated(paths));
+        properties.setPublicPaths(compiled.getPaths());
+        matcher = compiled;
+        log.info("Reloaded {} public paths", compiled.getPaths().size());
+    }
+
+    private static List<String> validated(List<String> paths) {
+        if (paths == null) {
+            return List.of();
+        }
+        for (String path : paths) {
+            if (path == null || path.isBlank() || path.equals("/")) {
+                throw new IllegalArgumentException("Public path must be a non-root prefix: " + path);
+            }
+            if (!path.startsWith("/")) {
+                throw new IllegalArgumentException("Public path must start with '/': " + path);
+            }
+        }
+        return paths;
+    }
+}
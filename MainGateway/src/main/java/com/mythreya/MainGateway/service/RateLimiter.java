@@ -0,0 +1,123 @@
+package com.mythreya.MainGateway.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+import com.mythreya.MainGateway.properties.CustomGatewayProperties.RouteRateLimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * In-process token buckets keyed by client IP or username. Each bucket is a single
+ * {@link AtomicLong} holding the bucket's theoretical arrival time (the GCRA form of a token
+ * bucket), so taking a token is one CAS and never blocks. Buckets live in striped maps and
+ * are dropped by a periodic sweep once they have refilled completely.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private static final int STRIPES = 16;
+
+    private final CustomGatewayProperties properties;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+    private final RouteRateLimit globalLimit;
+    private Disposable evictionTask;
+
+    public RateLimiter(CustomGatewayProperties properties) {
+        if (properties.getRateLimitPeriodSeconds() <= 0) {
+            throw new IllegalArgumentException("gateway.rate-limit-period-seconds must be positive");
+        }
+        this.properties = properties;
+        this.globalLimit = new RouteRateLimit();
+        this.globalLimit.setPath("");
+        this.globalLimit.setLimit(properties.getRateLimit());
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration period = Duration.ofSeconds(properties.getRateLimitPeriodSeconds());
+        evictionTask = Flux.interval(period, period).subscribe(tick -> evictIdleBuckets());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (evictionTask != null) {
+            evictionTask.dispose();
+        }
+    }
+
+    /**
+     * @return the route limit with the longest matching path prefix, or the global limit
+     */
+    public RouteRateLimit limitFor(String path) {
+        RouteRateLimit matched = globalLimit;
+        List<RouteRateLimit> routeLimits = properties.getRouteRateLimits();
+        for (int i = 0, n = routeLimits.size(); i < n; i++) {
+            RouteRateLimit route = routeLimits.get(i);
+            if (route.getPath().length() > matched.getPath().length() && path.startsWith(route.getPath())) {
+                matched = route;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}, allowing {@code limit} requests per period.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        long periodNanos = TimeUnit.SECONDS.toNanos(properties.getRateLimitPeriodSeconds());
+        long interval = periodNanos / limit;
+        AtomicLong bucket = stripeFor(key).computeIfAbsent(key, k -> new AtomicLong(System.nanoTime() - periodNanos));
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long next = start + interval;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            int before = stripe.size();
+            // A bucket whose arrival time has passed is full again and equivalent to a new one
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+            evicted += before - stripe.size();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+}
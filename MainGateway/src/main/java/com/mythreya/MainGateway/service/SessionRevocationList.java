@@ -0,0 +1,143 @@
+package com.mythreya.MainGateway.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mythreya.MainGateway.model.ApiResponse;
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Local copy of the registration service's session revocation list. The list is only
+ * re-fetched when a response advertises a newer version in {@link #VERSION_HEADER},
+ * plus a slow periodic refresh as a safety net.
+ */
+@Slf4j
+@Component
+public class SessionRevocationList {
+    public static final String VERSION_HEADER = "X-Revocation-Version";
+
+    private final WebClient.Builder webClientBuilder;
+    private final CustomGatewayProperties properties;
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong(-1);
+    private final AtomicLong advertisedVersion = new AtomicLong(-1);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private Disposable periodicRefresh;
+
+    public SessionRevocationList(WebClient.Builder webClientBuilder, CustomGatewayProperties properties) {
+        this.webClientBuilder = webClientBuilder;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        CustomGatewayProperties.SessionToken config = properties.getSessionToken();
+        if (!config.isEnabled()) {
+            return;
+        }
+        refresh();
+        if (config.getRevocationRefreshSeconds() > 0) {
+            periodicRefresh = Flux.interval(Duration.ofSeconds(config.getRevocationRefreshSeconds()))
+                .subscribe(tick -> refresh());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (periodicRefresh != null) {
+            periodicRefresh.dispose();
+        }
+    }
+
+    /**
+     * Until the first successful fetch the gateway cannot tell whether a token was revoked.
+     */
+    public boolean isLoaded() {
+        return version.get() >= 0;
+    }
+
+    public boolean isRevoked(String sessionId) {
+        return revokedSessions.containsKey(sessionId);
+    }
+
+    public void revokeLocally(String sessionId, long expiresAtEpochSeconds) {
+        revokedSessions.put(sessionId, expiresAtEpochSeconds);
+    }
+
+    public void observeVersion(String header) {
+        if (header == null) {
+            return;
+        }
+        try {
+            long observed = Long.parseLong(header.trim());
+            advertisedVersion.accumulateAndGet(observed, Math::max);
+            if (observed != version.get()) {
+                refresh();
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", VERSION_HEADER, header);
+        }
+    }
+
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long since = Math.max(version.get(), 0);
+        webClientBuilder.build()
+            .get()
+            .uri(properties.getRegistrationServiceUrl() + "/api/session/revocations?since={since}", since)
+            .retrieve()
+            .bodyToMono(ApiResponse.class)
+            .doOnNext(response -> apply(response, since))
+            .doFinally(signal -> {
+                refreshing.set(false);
+                // Catch up if a newer version was advertised while this fetch was running
+                if (signal == SignalType.ON_COMPLETE && advertisedVersion.get() > version.get()) {
+                    refresh();
+                }
+            })
+            .subscribe(
+                response -> { },
+                error -> log.warn("Failed to refresh session revocation list: {}", error.getMessage()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(ApiResponse<?> response, long since) {
+        Map<String, Object> data = (Map<String, Object>) response.getData();
+        if (data == null) {
+            return;
+        }
+        long latest = ((Number) data.get("version")).longValue();
+        if (latest < since) {
+            // The registration service's list was reset; reload it from scratch next time
+            log.warn("Session revocation list went back from version {} to {}", since, latest);
+            revokedSessions.clear();
+            advertisedVersion.set(latest);
+            version.set(-1);
+            return;
+        }
+        for (Map<String, Object> entry : (List<Map<String, Object>>) data.get("revoked")) {
+            revokedSessions.put((String) entry.get("sessionId"), ((Number) entry.get("expiresAt")).longValue());
+        }
+        long now = System.currentTimeMillis() / 1000;
+        revokedSessions.values().removeIf(expiresAt -> expiresAt <= now);
+        version.set(latest);
+        log.debug("Session revocation list at version {} ({} entries)", latest, revokedSessions.size());
+    }
+}
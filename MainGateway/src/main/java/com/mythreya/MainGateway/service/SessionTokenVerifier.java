@@ -0,0 +1,85 @@
+package com.mythreya.MainGateway.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.stereotype.Component;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies the HMAC-SHA256 session tokens issued by the registration service at login.
+ * A token is {@code base64url(username|sessionId|expiresEpochSeconds).base64url(signature)}.
+ */
+@Slf4j
+@Component
+public class SessionTokenVerifier {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final CustomGatewayProperties properties;
+    private final ThreadLocal<Mac> macs;
+
+    public SessionTokenVerifier(CustomGatewayProperties properties) {
+        this.properties = properties;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return properties.getSessionToken().isEnabled();
+    }
+
+    /**
+     * @return the token claims, or {@code null} if the token is malformed, forged or expired
+     */
+    public SessionToken verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] expected = macs.get().doFinal(token.substring(0, dot).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+            int first = payload.indexOf('|');
+            int last = payload.lastIndexOf('|');
+            if (first <= 0 || last <= first) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(payload.substring(last + 1));
+            if (expiresAt <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return new SessionToken(payload.substring(0, first), payload.substring(first + 1, last), expiresAt);
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejecting malformed session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Mac newMac() {
+        String secret = properties.getSessionToken().getSecret();
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("gateway.session-token.secret must be set when session tokens are enabled");
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    public record SessionToken(String username, String sessionId, long expiresAtEpochSeconds) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.mythreya.MainGateway.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Short-lived cache of session validation verdicts keyed by the X-Username / X-Session-ID pair.
+ * Both valid and invalid verdicts are cached, and concurrent validations of the same key share
+ * one upstream call. Upstream errors are never cached. Expired verdicts are dropped by a periodic
+ * sweep; when the cache is full, the oldest negative verdict is evicted first, then the oldest
+ * valid one, so a flood of bogus session IDs cannot crowd out real sessions.
+ */
+@Slf4j
+@Component
+public class SessionValidationCache {
+    private final CustomGatewayProperties properties;
+    private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamCall> inFlight = new ConcurrentHashMap<>();
+    // Verdicts in insertion order; entries no longer in the map are skipped and pruned by the sweep
+    private final Queue<Verdict> negativeOrder = new ConcurrentLinkedQueue<>();
+    private final Queue<Verdict> positiveOrder = new ConcurrentLinkedQueue<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private Disposable sweepTask;
+
+    public SessionValidationCache(CustomGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hits = sessionCacheCounter(meterRegistry, "hit");
+        this.misses = sessionCacheCounter(meterRegistry, "miss");
+        this.coalesced = sessionCacheCounter(meterRegistry, "coalesced");
+        Gauge.builder("gateway.session.cache.size", verdicts, Map::size)
+            .description("Session validation verdicts currently cached")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration period = Duration.ofSeconds(Math.max(1, properties.getSessionCache().getNegativeTtlSeconds()));
+        sweepTask = Flux.interval(period, period).subscribe(tick -> evictExpired());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.dispose();
+        }
+    }
+
+    public Mono<Boolean> validate(String username, String sessionId, Supplier<Mono<Boolean>> upstream) {
+        String key = key(username, sessionId);
+        Verdict verdict = verdicts.get(key);
+        if (verdict != null) {
+            if (!verdict.isExpired(System.nanoTime())) {
+                hits.increment();
+                return Mono.just(verdict.valid);
+            }
+            verdicts.remove(key, verdict);
+        }
+
+        UpstreamCall call = new UpstreamCall(key, upstream);
+        UpstreamCall existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.result;
+        }
+        misses.increment();
+        return call.result;
+    }
+
+    public void invalidate(String username, String sessionId) {
+        String key = key(username, sessionId);
+        verdicts.remove(key);
+        inFlight.remove(key);
+        log.debug("Invalidated cached session verdict for user {}", username);
+    }
+
+    private void store(String key, boolean valid) {
+        CustomGatewayProperties.SessionCache config = properties.getSessionCache();
+        long ttlSeconds = valid ? config.getTtlSeconds() : config.getNegativeTtlSeconds();
+        if (ttlSeconds <= 0) {
+            return;
+        }
+        if (verdicts.size() >= config.getMaxEntries() && !verdicts.containsKey(key)
+                && !evictOldest(negativeOrder) && !evictOldest(positiveOrder)) {
+            return;
+        }
+        Verdict verdict = new Verdict(key, valid, System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        verdicts.put(key, verdict);
+        (valid ? positiveOrder : negativeOrder).add(verdict);
+    }
+
+    private boolean evictOldest(Queue<Verdict> order) {
+        Verdict oldest;
+        while ((oldest = order.poll()) != null) {
+            if (verdicts.remove(oldest.key, oldest)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void evictExpired() {
+        long now = System.nanoTime();
+        int before = verdicts.size();
+        verdicts.values().removeIf(v -> v.isExpired(now));
+        negativeOrder.removeIf(v -> verdicts.get(v.key) != v);
+        positiveOrder.removeIf(v -> verdicts.get(v.key) != v);
+        int evicted = before - verdicts.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired session verdicts", evicted);
+        }
+    }
+
+    private static Counter sessionCacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.session.cache.requests")
+            .description("Session validation cache lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static String key(String username, String sessionId) {
+        return username + '\u0000' + sessionId;
+    }
+
+    /**
+     * One shared upstream validation. Its verdict is only stored while it is still the
+     * registered call for its key, so an invalidation during the call is not overwritten.
+     */
+    private final class UpstreamCall {
+        private final Mono<Boolean> result;
+
+        private UpstreamCall(String key, Supplier<Mono<Boolean>> upstream) {
+            this.result = Mono.defer(upstream)
+                .doOnNext(valid -> {
+                    if (inFlight.get(key) == this) {
+                        store(key, valid);
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(key, this))
+                .cache();
+        }
+    }
+
+    private record Verdict(String key, boolean valid, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
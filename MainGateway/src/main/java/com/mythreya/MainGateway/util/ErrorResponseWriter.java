@@ -0,0 +1,168 @@
+package com.mythreya.MainGateway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes gateway error bodies as JSON straight into a response {@link DataBuffer}, without an
+ * intermediate object, map or string. Fixed bodies can be encoded once with
+ * {@link #encode(String)} and written with {@link #write(ServerWebExchange, HttpStatus, byte[])},
+ * which wraps the bytes without copying.
+ */
+public final class ErrorResponseWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_CAPACITY = 256;
+
+    private ErrorResponseWriter() {
+    }
+
+    /**
+     * Encodes {@code {"status":"error","message":...}} once, for bodies that never change.
+     */
+    public static byte[] encode(String message) {
+        StringBuilder json = new StringBuilder(message.length() + 32)
+            .append("{\"status\":\"error\",\"message\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, byte[] body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Writes {@code {"timestamp":...,"status":...,"error":...,"message":...,"path":...,"requestId":...}}.
+     */
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String error, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(INITIAL_CAPACITY);
+        try {
+            writeAscii(buffer, "{\"timestamp\":\"");
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(LocalDateTime.now(), new DataBufferAppendable(buffer));
+            writeAscii(buffer, "\",\"status\":");
+            writeAscii(buffer, Integer.toString(status.value()));
+            writeAscii(buffer, ",\"error\":");
+            writeString(buffer, error);
+            writeAscii(buffer, ",\"message\":");
+            writeString(buffer, message);
+            writeAscii(buffer, ",\"path\":");
+            writeString(buffer, exchange.getRequest().getPath().value());
+            writeAscii(buffer, ",\"requestId\":");
+            writeString(buffer, exchange.getRequest().getId());
+            buffer.write((byte) '}');
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+        response.getHeaders().setContentLength(buffer.readableByteCount());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static void writeAscii(DataBuffer buffer, String ascii) {
+        buffer.ensureWritable(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer.write((byte) ascii.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a JSON string literal (or {@code null}), escaping and UTF-8 encoding char by char.
+     */
+    private static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            writeAscii(buffer, "null");
+            return;
+        }
+        buffer.ensureWritable(value.length() + 2);
+        buffer.write((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+            } else if (c < 0x20) {
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                buffer.write((byte) c);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write((byte) '?');
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    /**
+     * Lets {@link DateTimeFormatter} format straight into the buffer; timestamps are ASCII.
+     */
+    private static final class DataBufferAppendable implements Appendable {
+        private final DataBuffer buffer;
+
+        private DataBufferAppendable(DataBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                buffer.write((byte) csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            buffer.write((byte) c);
+            return this;
+        }
+    }
+}
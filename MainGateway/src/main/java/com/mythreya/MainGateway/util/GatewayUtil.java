@@ -1,12 +1,6 @@
 package com.mythreya.MainGateway.util;
 
-
-
-
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import org.springframework.http.MediaType;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ServerWebExchange;
@@ -14,22 +8,26 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 public class GatewayUtil {
-    public static boolean isPublicPath(String path, List<String> publicPaths) {
-        return publicPaths.stream()
-            .anyMatch(publicPath -> path.startsWith(publicPath));
-    }
+    public static final String AUTHENTICATION_REQUIRED = "Authentication required";
+    public static final String INVALID_SESSION = "Invalid or expired session";
+    public static final String RATE_LIMIT_EXCEEDED = "Rate limit exceeded";
+
+    // Bodies for the hot rejection paths are encoded once and wrapped, never re-serialized
+    private static final Map<String, byte[]> ENCODED_BODIES = Map.of(
+        AUTHENTICATION_REQUIRED, ErrorResponseWriter.encode(AUTHENTICATION_REQUIRED),
+        INVALID_SESSION, ErrorResponseWriter.encode(INVALID_SESSION),
+        RATE_LIMIT_EXCEEDED, ErrorResponseWriter.encode(RATE_LIMIT_EXCEEDED));
 
     public static Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "error");
-        response.put("message", message);
-        
-        return exchange.getResponse()
-            .writeWith(Mono.just(exchange.getResponse()
-                .bufferFactory()
-                .wrap(response.toString().getBytes())));
+        return error(exchange, HttpStatus.UNAUTHORIZED, message);
+    }
+
+    public static Mono<Void> tooManyRequests(ServerWebExchange exchange, String message) {
+        return error(exchange, HttpStatus.TOO_MANY_REQUESTS, message);
+    }
+
+    private static Mono<Void> error(ServerWebExchange exchange, HttpStatus status, String message) {
+        byte[] body = ENCODED_BODIES.get(message);
+        return ErrorResponseWriter.write(exchange, status, body != null ? body : ErrorResponseWriter.encode(message));
     }
 }
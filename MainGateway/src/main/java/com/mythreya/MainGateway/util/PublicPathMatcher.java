@@ -0,0 +1,103 @@
+package com.mythreya.MainGateway.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable prefix trie over the configured public paths. A request path is public when
+ * any configured path is a prefix of it, the same rule as {@code String.startsWith}.
+ * Matching walks the request path once and allocates nothing.
+ */
+public final class PublicPathMatcher {
+    private final Node root;
+    private final List<String> paths;
+
+    private PublicPathMatcher(Node root, List<String> paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    public static PublicPathMatcher compile(List<String> paths) {
+        List<String> copy = paths == null ? List.of() : List.copyOf(paths);
+        MutableNode root = new MutableNode();
+        for (String path : copy) {
+            MutableNode node = root;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.child(path.charAt(i));
+            }
+            node.terminal = true;
+        }
+        return new PublicPathMatcher(root.freeze(), copy);
+    }
+
+    public boolean matches(String path) {
+        Node node = root;
+        if (node.terminal) {
+            return true;
+        }
+        for (int i = 0, n = path.length(); i < n; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final boolean terminal;
+
+        private Node(char[] keys, Node[] children, boolean terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private static final class MutableNode {
+        private char[] keys = new char[0];
+        private MutableNode[] children = new MutableNode[0];
+        private boolean terminal;
+
+        private MutableNode child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            MutableNode[] newChildren = new MutableNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new MutableNode();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        private Node freeze() {
+            Node[] frozen = new Node[children.length];
+            for (int i = 0; i < children.length; i++) {
+                frozen[i] = children[i].freeze();
+            }
+            return new Node(keys, frozen, terminal);
+        }
+    }
+}
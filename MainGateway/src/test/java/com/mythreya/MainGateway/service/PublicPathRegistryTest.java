@@ -0,0 +1,54 @@
+package com.mythreya.MainGateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+
+class PublicPathRegistryTest {
+
+    @Test
+    void reloadReplacesTheMatcherAndProperties() {
+        CustomGatewayProperties properties = properties("/api/auth/login");
+        PublicPathRegistry registry = new PublicPathRegistry(properties);
+
+        registry.reload(List.of("/api/public/"));
+
+        assertFalse(registry.isPublicPath("/api/auth/login"));
+        assertTrue(registry.isPublicPath("/api/public/feed"));
+        assertEquals(List.of("/api/public/"), properties.getPublicPaths());
+    }
+
+    @Test
+    void reloadRejectsPrefixesThatWouldOpenEveryPath() {
+        PublicPathRegistry registry = new PublicPathRegistry(properties("/api/auth/login"));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(List.of("/")));
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(List.of("")));
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(List.of(" ")));
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(Arrays.asList("/api/public/", null)));
+        assertThrows(IllegalArgumentException.class, () -> registry.reload(List.of("api/public/")));
+
+        // A rejected reload leaves the previous paths in place
+        assertEquals(List.of("/api/auth/login"), registry.getPaths());
+        assertFalse(registry.isPublicPath("/api/orders"));
+    }
+
+    @Test
+    void startupRejectsARootPrefix() {
+        assertThrows(IllegalArgumentException.class, () -> new PublicPathRegistry(properties("/api/auth/login", "/")));
+    }
+
+    private static CustomGatewayProperties properties(String... publicPaths) {
+        CustomGatewayProperties properties = new CustomGatewayProperties();
+        properties.setPublicPaths(List.of(publicPaths));
+        return properties;
+    }
+}
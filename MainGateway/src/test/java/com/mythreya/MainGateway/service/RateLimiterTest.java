@@ -0,0 +1,119 @@
+package com.mythreya.MainGateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+import com.mythreya.MainGateway.properties.CustomGatewayProperties.RouteRateLimit;
+
+class RateLimiterTest {
+
+    private static final int LIMIT = 10;
+    // One second per period, so one token every 100 ms
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / LIMIT;
+
+    @Test
+    void allowsABurstOfTheFullLimit() {
+        RateLimiter rateLimiter = new RateLimiter(properties());
+
+        for (int i = 0; i < LIMIT; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", LIMIT), "request " + (i + 1));
+        }
+        long wait = rateLimiter.tryAcquire("10.0.0.1", LIMIT);
+        assertTrue(wait > 0 && wait <= INTERVAL_NANOS, "wait " + wait);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(properties());
+        for (int i = 0; i < LIMIT; i++) {
+            rateLimiter.tryAcquire("alice", LIMIT);
+        }
+        long wait = rateLimiter.tryAcquire("alice", LIMIT);
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(0, rateLimiter.tryAcquire("alice", LIMIT));
+        assertTrue(rateLimiter.tryAcquire("alice", LIMIT) > 0);
+    }
+
+    @Test
+    void refillsTheWholeBurstAfterAPeriod() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(properties());
+        for (int i = 0; i < LIMIT; i++) {
+            rateLimiter.tryAcquire("bob", LIMIT);
+        }
+
+        TimeUnit.MILLISECONDS.sleep(1050);
+
+        for (int i = 0; i < LIMIT; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("bob", LIMIT), "request " + (i + 1));
+        }
+        assertTrue(rateLimiter.tryAcquire("bob", LIMIT) > 0);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerKey() {
+        RateLimiter rateLimiter = new RateLimiter(properties());
+        for (int i = 0; i < LIMIT; i++) {
+            rateLimiter.tryAcquire("10.0.0.1", LIMIT);
+        }
+
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", LIMIT) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", LIMIT));
+    }
+
+    @Test
+    void nonPositiveLimitIsUnlimited() {
+        RateLimiter rateLimiter = new RateLimiter(properties());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", 0));
+        }
+    }
+
+    @Test
+    void picksTheLongestMatchingRouteLimit() {
+        CustomGatewayProperties properties = properties();
+        RouteRateLimit api = routeLimit("/api/", 100);
+        RouteRateLimit login = routeLimit("/api/auth/login", 5);
+        properties.setRouteRateLimits(List.of(api, login));
+        RateLimiter rateLimiter = new RateLimiter(properties);
+
+        assertSame(login, rateLimiter.limitFor("/api/auth/login"));
+        assertSame(api, rateLimiter.limitFor("/api/orders"));
+        RouteRateLimit global = rateLimiter.limitFor("/health");
+        assertEquals("", global.getPath());
+        assertEquals(LIMIT, global.getLimit());
+    }
+
+    @Test
+    void rejectsANonPositivePeriod() {
+        CustomGatewayProperties properties = properties();
+        properties.setRateLimitPeriodSeconds(0);
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(properties));
+        properties.setRateLimitPeriodSeconds(-1);
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(properties));
+    }
+
+    private static CustomGatewayProperties properties() {
+        CustomGatewayProperties properties = new CustomGatewayProperties();
+        properties.setRateLimit(LIMIT);
+        properties.setRateLimitPeriodSeconds(1);
+        return properties;
+    }
+
+    private static RouteRateLimit routeLimit(String path, int limit) {
+        RouteRateLimit routeLimit = new RouteRateLimit();
+        routeLimit.setPath(path);
+        routeLimit.setLimit(limit);
+        return routeLimit;
+    }
+}
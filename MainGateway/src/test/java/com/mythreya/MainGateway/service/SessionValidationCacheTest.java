@@ -0,0 +1,111 @@
+package com.mythreya.MainGateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mythreya.MainGateway.properties.CustomGatewayProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class SessionValidationCacheTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void servesCachedVerdictsWithoutCallingUpstream() {
+        SessionValidationCache cache = cache(10, 1);
+
+        assertTrue(validate(cache, "alice", "s1", true));
+        assertTrue(validate(cache, "alice", "s1", true));
+        assertFalse(validate(cache, "mallory", "bogus", false));
+        assertFalse(validate(cache, "mallory", "bogus", false));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void evictsNegativeVerdictsBeforeValidOnesWhenFull() {
+        SessionValidationCache cache = cache(3, 5);
+        validate(cache, "alice", "s1", true);
+        validate(cache, "mallory", "bogus1", false);
+        validate(cache, "mallory", "bogus2", false);
+
+        // Full: each new verdict displaces the oldest negative one
+        validate(cache, "bob", "s2", true);
+        validate(cache, "mallory", "bogus3", false);
+        upstreamCalls.set(0);
+
+        assertTrue(validate(cache, "alice", "s1", true));
+        assertTrue(validate(cache, "bob", "s2", true));
+        assertFalse(validate(cache, "mallory", "bogus3", false));
+        assertEquals(0, upstreamCalls.get());
+
+        assertFalse(validate(cache, "mallory", "bogus1", false));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void evictsTheOldestValidVerdictWhenNoNegativeOnesAreLeft() {
+        SessionValidationCache cache = cache(2, 5);
+        validate(cache, "alice", "s1", true);
+        validate(cache, "bob", "s2", true);
+        validate(cache, "carol", "s3", true);
+        upstreamCalls.set(0);
+
+        validate(cache, "bob", "s2", true);
+        validate(cache, "carol", "s3", true);
+        assertEquals(0, upstreamCalls.get());
+        validate(cache, "alice", "s1", true);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void sweepDropsExpiredVerdicts() throws InterruptedException {
+        SessionValidationCache cache = cache(2, 1);
+        validate(cache, "mallory", "bogus1", false);
+        validate(cache, "mallory", "bogus2", false);
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        cache.evictExpired();
+        validate(cache, "alice", "s1", true);
+        validate(cache, "bob", "s2", true);
+        upstreamCalls.set(0);
+
+        validate(cache, "alice", "s1", true);
+        validate(cache, "bob", "s2", true);
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void invalidateDropsTheCachedVerdict() {
+        SessionValidationCache cache = cache(10, 5);
+        validate(cache, "alice", "s1", true);
+
+        cache.invalidate("alice", "s1");
+
+        assertFalse(validate(cache, "alice", "s1", false));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private boolean validate(SessionValidationCache cache, String username, String sessionId, boolean upstreamVerdict) {
+        return cache.validate(username, sessionId, () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(upstreamVerdict);
+        }).block();
+    }
+
+    private static SessionValidationCache cache(int maxEntries, long negativeTtlSeconds) {
+        CustomGatewayProperties properties = new CustomGatewayProperties();
+        properties.getSessionCache().setMaxEntries(maxEntries);
+        properties.getSessionCache().setTtlSeconds(30);
+        properties.getSessionCache().setNegativeTtlSeconds(negativeTtlSeconds);
+        return new SessionValidationCache(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,114 @@
+package com.mythreya.MainGateway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Allocation per rejected request: a response written and committed with each kind of error
+ * body, into pooled Netty buffers as in the gateway. Compare {@code gc.alloc.rate.norm}
+ * against {@code baseline}, which commits an empty response through the same mock plumbing.
+ * Run with
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.mythreya.MainGateway.util.ErrorResponseBenchmark"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+    private static final Function<Flux<DataBuffer>, Mono<Void>> RELEASE =
+        body -> body.doOnNext(DataBufferUtils::release).then();
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/42"));
+
+    private ServerWebExchange newExchange() {
+        MockServerHttpResponse response = new MockServerHttpResponse(bufferFactory);
+        response.setWriteHandler(RELEASE);
+        return new ServerWebExchangeDecorator(exchange) {
+            @Override
+            public MockServerHttpResponse getResponse() {
+                return response;
+            }
+        };
+    }
+
+    @Benchmark
+    public void baseline() {
+        newExchange().getResponse().setComplete().subscribe();
+    }
+
+    // GatewayUtil.error before the shared writer: a map's toString(), which is not even JSON
+    @Benchmark
+    public void legacyMapToString() {
+        ServerWebExchange exchange = newExchange();
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", GatewayUtil.INVALID_SESSION);
+        exchange.getResponse()
+            .writeWith(Mono.just(exchange.getResponse()
+                .bufferFactory()
+                .wrap(response.toString().getBytes(StandardCharsets.UTF_8))))
+            .subscribe();
+    }
+
+    @Benchmark
+    public void preEncodedUnauthorized() {
+        GatewayUtil.unauthorized(newExchange(), GatewayUtil.INVALID_SESSION).subscribe();
+    }
+
+    @Benchmark
+    public void preEncodedTooManyRequests() {
+        GatewayUtil.tooManyRequests(newExchange(), GatewayUtil.RATE_LIMIT_EXCEEDED).subscribe();
+    }
+
+    @Benchmark
+    public void streamedError() {
+        ErrorResponseWriter.write(newExchange(), HttpStatus.SERVICE_UNAVAILABLE,
+            "Service Unavailable", "Downstream service is not responding").subscribe();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ErrorResponseBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
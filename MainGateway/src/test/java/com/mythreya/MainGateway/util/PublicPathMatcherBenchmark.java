@@ -0,0 +1,90 @@
+package com.mythreya.MainGateway.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Public-path check per request: the compiled trie against the {@code startsWith} stream it
+ * replaced, at 10 and 500 configured paths. Run with
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.mythreya.MainGateway.util.PublicPathMatcherBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+    private static final int REQUESTS = 1024;
+
+    @Param({"10", "500"})
+    public int pathCount;
+
+    private List<String> paths;
+    private PublicPathMatcher matcher;
+    private String[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        paths = new ArrayList<>(pathCount);
+        for (int i = 0; i < pathCount; i++) {
+            paths.add("/api/service" + i + "/public/");
+        }
+        matcher = PublicPathMatcher.compile(paths);
+        // One request in four is public; the rest share the /api/service prefix but miss
+        requests = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int service = random.nextInt(pathCount);
+            requests[i] = random.nextInt(4) == 0
+                ? "/api/service" + service + "/public/items/" + i
+                : "/api/service" + service + "/orders/" + i;
+        }
+    }
+
+    private String nextRequest() {
+        return requests[next++ & (REQUESTS - 1)];
+    }
+
+    @Benchmark
+    public void trie(Blackhole blackhole) {
+        blackhole.consume(matcher.matches(nextRequest()));
+    }
+
+    // GatewayUtil.isPublicPath before the trie
+    @Benchmark
+    public void streamAnyMatch(Blackhole blackhole) {
+        String path = nextRequest();
+        blackhole.consume(paths.stream().anyMatch(publicPath -> path.startsWith(publicPath)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PublicPathMatcherBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
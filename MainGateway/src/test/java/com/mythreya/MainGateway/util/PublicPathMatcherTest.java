@@ -0,0 +1,89 @@
+package com.mythreya.MainGateway.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PublicPathMatcherTest {
+
+    private final PublicPathMatcher matcher = PublicPathMatcher.compile(List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/public/",
+            "/actuator/health"));
+
+    @Test
+    void matchesExactPaths() {
+        assertTrue(matcher.matches("/api/auth/login"));
+        assertTrue(matcher.matches("/api/auth/register"));
+        assertTrue(matcher.matches("/actuator/health"));
+    }
+
+    @Test
+    void matchesPathsUnderAConfiguredPrefix() {
+        assertTrue(matcher.matches("/api/public/"));
+        assertTrue(matcher.matches("/api/public/feed"));
+        assertTrue(matcher.matches("/api/public/feed/42?page=2"));
+        assertTrue(matcher.matches("/actuator/health/liveness"));
+    }
+
+    @Test
+    void rejectsSiblingsAndParentsOfConfiguredPaths() {
+        assertFalse(matcher.matches("/api/auth"));
+        assertFalse(matcher.matches("/api/auth/"));
+        assertFalse(matcher.matches("/api/auth/logout"));
+        assertFalse(matcher.matches("/api/public"));
+        assertFalse(matcher.matches("/api/publicity"));
+        assertFalse(matcher.matches("/actuator/metrics"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("/"));
+    }
+
+    @Test
+    void matchesLikeStartsWithWithinASegment() {
+        // A configured path without a trailing slash also covers longer segment names
+        assertTrue(matcher.matches("/api/auth/login-otp"));
+        assertTrue(matcher.matches("/api/auth/registered"));
+    }
+
+    @Test
+    void emptyOrMissingPathsMatchNothing() {
+        assertFalse(PublicPathMatcher.compile(List.of()).matches("/api/auth/login"));
+        assertFalse(PublicPathMatcher.compile(null).matches("/"));
+        assertEquals(List.of(), PublicPathMatcher.compile(null).getPaths());
+    }
+
+    @Test
+    void agreesWithStartsWithOnRandomPaths() {
+        Random random = new Random(7);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            paths.add(randomPath(random));
+        }
+        PublicPathMatcher compiled = PublicPathMatcher.compile(paths);
+        for (int i = 0; i < 10_000; i++) {
+            String request = random.nextBoolean()
+                    ? paths.get(random.nextInt(paths.size())) + randomPath(random)
+                    : randomPath(random);
+            boolean expected = paths.stream().anyMatch(request::startsWith);
+            assertEquals(expected, compiled.matches(request), request);
+        }
+    }
+
+    private static String randomPath(Random random) {
+        StringBuilder path = new StringBuilder();
+        for (int segments = 1 + random.nextInt(3); segments > 0; segments--) {
+            path.append('/');
+            for (int length = 1 + random.nextInt(3); length > 0; length--) {
+                path.append((char) ('a' + random.nextInt(3)));
+            }
+        }
+        return path.toString();
+    }
+}
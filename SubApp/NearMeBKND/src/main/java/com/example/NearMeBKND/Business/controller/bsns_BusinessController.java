@@ -3,9 +3,13 @@ package com.example.NearMeBKND.Business.controller;
 import com.example.NearMeBKND.Business.model.bsns_Business;
 import com.example.NearMeBKND.Business.model.bsns_BusinessNotification;
 import com.example.NearMeBKND.Business.service.bsns_BusinessService;
+import com.example.NearMeBKND.service.ImageVariantService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -158,16 +162,39 @@ public class bsns_BusinessController {
     public ResponseEntity<?> getAllBusinesses(
             @RequestHeader("X-User-ID") String userId,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "30") int size) {
+            @RequestParam(value = "size", defaultValue = "30") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
         long requestStart = System.currentTimeMillis();
         QueryLogger.clear();
         try {
-            java.util.List<bsns_Business> businesses = businessService.getAllBusinessesInRadius(userId, page, size);
+            if (cursor != null) {
+                // Cursor mode: pass cursor= (empty) for the first page, then each response's nextCursor
+                com.example.NearMeBKND.Business.dto.BusinessPage feed = businessService.getBusinessFeedInRadius(userId, cursor, size, includeTotal);
+                java.util.List<com.example.NearMeBKND.Business.dto.BusinessDTO> dtos = new java.util.ArrayList<>();
+                for (bsns_Business b : feed.getBusinesses()) {
+                    dtos.add(businessService.toBusinessDTO(b));
+                }
+                java.util.Map<String, Object> response = new java.util.LinkedHashMap<>();
+                response.put("success", true);
+                response.put("message", "Operation successful");
+                response.put("size", size);
+                response.put("count", dtos.size());
+                response.put("nextCursor", feed.getNextCursor());
+                if (feed.getTotalCount() != null) {
+                    response.put("totalCount", feed.getTotalCount());
+                }
+                response.put("data", dtos);
+                response.put("queries", QueryLogger.getQueries());
+                response.put("totalRequestTimeMs", System.currentTimeMillis() - requestStart);
+                return ResponseEntity.ok(response);
+            }
+            com.example.NearMeBKND.Business.dto.BusinessPage result = businessService.getBusinessPageInRadius(userId, page, size);
             java.util.List<com.example.NearMeBKND.Business.dto.BusinessDTO> dtos = new java.util.ArrayList<>();
-            for (bsns_Business b : businesses) {
+            for (bsns_Business b : result.getBusinesses()) {
                 dtos.add(businessService.toBusinessDTO(b));
             }
-            int totalCount = businessService.getFilteredBusinessCount(userId);
+            int totalCount = result.getTotalCount();
             int totalPages = (int) Math.ceil((double) totalCount / size);
             if (dtos == null) dtos = java.util.Collections.emptyList();
             long requestEnd = System.currentTimeMillis();
@@ -228,12 +255,32 @@ public class bsns_BusinessController {
     }
 
     @GetMapping("/image/{businessId}")
-    public ResponseEntity<byte[]> getBusinessImage(@PathVariable("businessId") Integer businessId) {
-        byte[] image = businessService.getBusinessImage(businessId);
-        if (image == null) {
+    public ResponseEntity<Resource> getBusinessImage(
+            @PathVariable("businessId") Integer businessId,
+            @RequestParam(value = "size", defaultValue = "full") String size) {
+        ImageVariantService.Size variantSize;
+        try {
+            variantSize = ImageVariantService.Size.parse(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String imageHash = businessService.getBusinessImageHash(businessId);
+        java.nio.file.Path path = imageHash != null ? businessService.getImagePath(imageHash) : null;
+        if (path == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok().header("Content-Type", "image/jpeg").body(image);
+        String etag = imageHash;
+        java.nio.file.Path variant = businessService.getImageVariantPath(imageHash, variantSize);
+        if (variant != null) {
+            path = variant;
+            etag = imageHash + "-" + size.toLowerCase();
+        }
+        // The content hash is a strong ETag; Spring answers If-None-Match with 304 and Range with 206
+        return ResponseEntity.ok()
+                .header("Content-Type", "image/jpeg")
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(new FileSystemResource(path));
     }
 
     @GetMapping("/mine")
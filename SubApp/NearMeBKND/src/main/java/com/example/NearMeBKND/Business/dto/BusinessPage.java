@@ -0,0 +1,24 @@
+package com.example.NearMeBKND.Business.dto;
+
+import com.example.NearMeBKND.Business.model.bsns_Business;
+import java.util.List;
+
+public class BusinessPage {
+    private final List<bsns_Business> businesses;
+    private final Integer totalCount;
+    private final String nextCursor;
+
+    public BusinessPage(List<bsns_Business> businesses, Integer totalCount) {
+        this(businesses, totalCount, null);
+    }
+
+    public BusinessPage(List<bsns_Business> businesses, Integer totalCount, String nextCursor) {
+        this.businesses = businesses;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<bsns_Business> getBusinesses() { return businesses; }
+    public Integer getTotalCount() { return totalCount; }
+    public String getNextCursor() { return nextCursor; }
+}
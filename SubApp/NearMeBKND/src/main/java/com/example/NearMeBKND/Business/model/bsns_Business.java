@@ -12,6 +12,7 @@ public class bsns_Business {
     private String tags;
     private String description;
     private byte[] image;
+    private String imageHash;
     private String googlemapsURL;
     private Double longitude;
     private Double latitude;
@@ -9,6 +9,7 @@ import com.example.NearMeBKND.Business.model.bsns_BusinessFeedback;
 import com.example.NearMeBKND.Business.model.bsns_BusinessFeedbackReply;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -16,15 +17,26 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.PreparedStatement;
 import java.util.List;
+import com.example.NearMeBKND.util.FeedCursor;
+import com.example.NearMeBKND.service.TagIndex;
+import com.example.NearMeBKND.util.GeoCell;
+import com.example.NearMeBKND.util.GeoUtils;
 import com.example.NearMeBKND.util.QueryLogger;
 
 @Repository
 public class bsns_BusinessRepository {
+    private static final String LIST_COLUMNS = "business_id, user_id, name, title, description, address, mobile_number, timings, googlemapsURL, latitude, longitude, created_at, active";
+    // LIST_COLUMNS qualified for queries that join business as b
+    private static final String TAGGED_LIST_COLUMNS = "b." + LIST_COLUMNS.replace(", ", ", b.");
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private TagIndex tagIndex;
+
     public Integer save(bsns_Business business) {
-        String sql = "INSERT INTO business (user_id, name, title, tags, description, image, googlemapsURL, longitude, latitude, address, mobile_number, timings, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO business (user_id, name, title, tags, description, image, googlemapsURL, longitude, latitude, address, mobile_number, timings, active, geo_cell, image_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         KeyHolder keyHolder = new GeneratedKeyHolder();
         jdbcTemplate.update(connection -> {
             PreparedStatement ps = connection.prepareStatement(sql, new String[] {"business_id"});
@@ -41,6 +53,9 @@ public class bsns_BusinessRepository {
             ps.setString(11, business.getMobileNumber());
             ps.setString(12, business.getTimings());
             ps.setObject(13, business.getActive() != null ? business.getActive() : true);
+            ps.setObject(14, business.getLatitude() != null && business.getLongitude() != null
+                ? GeoCell.encode(business.getLatitude(), business.getLongitude()) : null);
+            ps.setString(15, business.getImageHash());
             return ps;
         }, keyHolder);
         return keyHolder.getKey().intValue();
@@ -53,20 +68,30 @@ public class bsns_BusinessRepository {
     }
 
     public bsns_Business findById(Integer businessId) {
-        String sql = "SELECT * FROM business WHERE business_id = ? AND active = 1";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE business_id = ? AND active = 1";
         return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> mapRowToBusiness(rs), businessId);
     }
 
     public java.util.List<bsns_Business> findAll() {
-        String sql = "SELECT * FROM business WHERE active = 1 ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE active = 1 ORDER BY created_at DESC";
         return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToBusiness(rs));
     }
 
     public void saveTags(Integer businessId, java.util.List<String> tags) {
         String sql = "INSERT INTO business_tags (business_id, tag) VALUES (?, ?)";
-        for (String tag : tags) {
-            jdbcTemplate.update(sql, businessId, tag.trim());
-        }
+        jdbcTemplate.batchUpdate(sql, tags.stream().map(tag -> new Object[]{businessId, tag.trim()}).toList());
+        tagIndex.add(TagIndex.Domain.BUSINESS, businessId, tags);
+    }
+
+    /**
+     * Tags of every business, keyed by business id; loads the in-memory tag index.
+     */
+    public java.util.Map<Integer, java.util.List<String>> findAllTags() {
+        java.util.Map<Integer, java.util.List<String>> tags = new java.util.HashMap<>();
+        jdbcTemplate.query("SELECT business_id, tag FROM business_tags", rs -> {
+            tags.computeIfAbsent(rs.getInt("business_id"), k -> new java.util.ArrayList<>()).add(rs.getString("tag"));
+        });
+        return tags;
     }
 
     public Integer getLastInsertedBusinessId() {
@@ -77,7 +102,7 @@ public class bsns_BusinessRepository {
     public java.util.List<bsns_Business> findByTags(java.util.List<String> tags) {
         if (tags == null || tags.isEmpty()) return java.util.Collections.emptyList();
         String inSql = String.join(",", java.util.Collections.nCopies(tags.size(), "?"));
-        String sql = "SELECT DISTINCT b.* FROM business b JOIN business_tags t ON b.business_id = t.business_id WHERE t.tag IN (" + inSql + ") AND b.active = 1 ORDER BY b.created_at DESC";
+        String sql = "SELECT DISTINCT " + TAGGED_LIST_COLUMNS + " FROM business b JOIN business_tags t ON b.business_id = t.business_id WHERE t.tag IN (" + inSql + ") AND b.active = 1 ORDER BY b.created_at DESC";
         return jdbcTemplate.query(sql, tags.toArray(), (rs, rowNum) -> mapRowToBusiness(rs));
     }
 
@@ -101,25 +126,29 @@ public class bsns_BusinessRepository {
     }
 
     public java.util.List<bsns_Business> findByUserId(String userId) {
-        String sql = "SELECT * FROM business WHERE user_id = ? AND active = 1 ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE user_id = ? AND active = 1 ORDER BY created_at DESC";
         return jdbcTemplate.query(sql, new Object[]{userId}, (rs, rowNum) -> mapRowToBusiness(rs));
     }
 
     public java.util.List<bsns_Business> findByIds(java.util.List<Integer> ids) {
         if (ids == null || ids.isEmpty()) return java.util.Collections.emptyList();
         String inSql = String.join(",", java.util.Collections.nCopies(ids.size(), "?"));
-        String sql = "SELECT * FROM business WHERE business_id IN (" + inSql + ") AND active = 1 ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE business_id IN (" + inSql + ") AND active = 1 ORDER BY created_at DESC";
         return jdbcTemplate.query(sql, ids.toArray(), (rs, rowNum) -> mapRowToBusiness(rs));
     }
 
     public int softDeleteById(Integer businessId, String userId) {
         String sql = "UPDATE business SET active = 0 WHERE business_id = ? AND user_id = ?";
-        return jdbcTemplate.update(sql, businessId, userId);
+        int rows = jdbcTemplate.update(sql, businessId, userId);
+        if (rows > 0) {
+            tagIndex.remove(TagIndex.Domain.BUSINESS, businessId);
+        }
+        return rows;
     }
 
-    public int updateImage(Integer businessId, String userId, byte[] image) {
-        String sql = "UPDATE business SET image = ? WHERE business_id = ? AND user_id = ?";
-        return jdbcTemplate.update(sql, image, businessId, userId);
+    public int updateImageHash(Integer businessId, String userId, String imageHash) {
+        String sql = "UPDATE business SET image_hash = ?, image = NULL WHERE business_id = ? AND user_id = ?";
+        return jdbcTemplate.update(sql, imageHash, businessId, userId);
     }
 
     public int updateBusinessFields(Integer businessId, String userId, java.util.Map<String, Object> fields) {
@@ -134,7 +163,37 @@ public class bsns_BusinessRepository {
         sql.append(" WHERE business_id = ? AND user_id = ?");
         params.add(businessId);
         params.add(userId);
-        return jdbcTemplate.update(sql.toString(), params.toArray());
+        int rows = jdbcTemplate.update(sql.toString(), params.toArray());
+        if (rows > 0 && (fields.containsKey("latitude") || fields.containsKey("longitude"))) {
+            updateGeoCell(businessId);
+        }
+        return rows;
+    }
+
+    private void updateGeoCell(Integer businessId) {
+        String sql = "SELECT latitude, longitude FROM business WHERE business_id = ?";
+        Long geoCell = jdbcTemplate.query(sql, new Object[]{businessId}, rs -> {
+            if (!rs.next() || rs.getObject("latitude") == null || rs.getObject("longitude") == null) {
+                return null;
+            }
+            return GeoCell.encode(rs.getDouble("latitude"), rs.getDouble("longitude"));
+        });
+        jdbcTemplate.update("UPDATE business SET geo_cell = ? WHERE business_id = ?", geoCell, businessId);
+    }
+
+    /**
+     * Fills geo_cell for rows written before the column existed. Returns the number of rows updated.
+     */
+    public int backfillGeoCells() {
+        String sql = "SELECT business_id, latitude, longitude FROM business WHERE geo_cell IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL";
+        List<Object[]> batch = jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{
+            GeoCell.encode(rs.getDouble("latitude"), rs.getDouble("longitude")),
+            rs.getInt("business_id")
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE business SET geo_cell = ? WHERE business_id = ?", batch);
+        }
+        return batch.size();
     }
 
     public void saveBusinessQuestion(bsns_BusinessQuestion question) {
@@ -343,49 +402,12 @@ public class bsns_BusinessRepository {
     }
 
     public java.util.List<bsns_Business> findAllPaginated(int limit, int offset) {
-        String sql = "SELECT * FROM business WHERE active = 1 ORDER BY created_at DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE active = 1 ORDER BY created_at DESC LIMIT ? OFFSET ?";
         return jdbcTemplate.query(sql, new Object[]{limit, offset}, (rs, rowNum) -> mapRowToBusiness(rs));
     }
 
     public java.util.List<bsns_Business> findAllPaginatedFiltered(String userId, double userLat, double userLon, double radiusKm, int limit, int offset) {
-        double latDegree = radiusKm / 111.0;
-        double lonDegree = radiusKm / (111.0 * Math.cos(Math.toRadians(userLat)));
-        double minLat = userLat - latDegree;
-        double maxLat = userLat + latDegree;
-        double minLon = userLon - lonDegree;
-        double maxLon = userLon + lonDegree;
-
-        String sql = """
-            SELECT * FROM business
-            WHERE active = 1
-              AND (
-                user_id = ?
-                OR (
-                  latitude BETWEEN ? AND ?
-                  AND longitude BETWEEN ? AND ?
-                  AND latitude IS NOT NULL AND longitude IS NOT NULL
-                  AND (6371 * 2 * 
-                    ASIN(
-                      SQRT(
-                        POWER(SIN(RADIANS(latitude - ?) / 2), 2) +
-                        COS(RADIANS(?)) * COS(RADIANS(latitude)) *
-                        POWER(SIN(RADIANS(longitude - ?) / 2), 2)
-                      )
-                    )
-                  ) <= ?
-                )
-              )
-            ORDER BY created_at DESC
-            LIMIT ? OFFSET ?
-        """;
-        long start = System.currentTimeMillis();
-        java.util.List<bsns_Business> result = jdbcTemplate.query(sql, new Object[]{
-            userId, minLat, maxLat, minLon, maxLon,
-            userLat, userLat, userLon, radiusKm, limit, offset
-        }, (rs, rowNum) -> mapRowToBusiness(rs));
-        long end = System.currentTimeMillis();
-        QueryLogger.log(sql, end - start);
-        return result;
+        return findByIdsInOrder(page(findIdsWithinRadius(userId, userLat, userLon, radiusKm), limit, offset));
     }
  
     public int countAllActiveBusinesses() {
@@ -395,75 +417,155 @@ public class bsns_BusinessRepository {
     }
 
     public int countAllFiltered(String userId, double userLat, double userLon, double radiusKm) {
-        double latDegree = radiusKm / 111.0;
-        double lonDegree = radiusKm / (111.0 * Math.cos(Math.toRadians(userLat)));
-        double minLat = userLat - latDegree;
-        double maxLat = userLat + latDegree;
-        double minLon = userLon - lonDegree;
-        double maxLon = userLon + lonDegree;
-        String sql = """
-            SELECT COUNT(*) FROM business
-            WHERE active = 1
-              AND (
-                user_id = ?
-                OR (
-                  latitude BETWEEN ? AND ?
-                  AND longitude BETWEEN ? AND ?
-                  AND latitude IS NOT NULL AND longitude IS NOT NULL
-                  AND (6371 * 2 * 
-                    ASIN(
-                      SQRT(
-                        POWER(SIN(RADIANS(latitude - ?) / 2), 2) +
-                        COS(RADIANS(?)) * COS(RADIANS(latitude)) *
-                        POWER(SIN(RADIANS(longitude - ?) / 2), 2)
-                      )
-                    )
-                  ) <= ?
-                )
-              )
-        """;
-        long start = System.currentTimeMillis();
-        Integer count = jdbcTemplate.queryForObject(sql, new Object[]{
-            userId, minLat, maxLat, minLon, maxLon,
-            userLat, userLat, userLon, radiusKm
-        }, Integer.class);
-        long end = System.currentTimeMillis();
-        QueryLogger.log(sql, end - start);
-        return count != null ? count : 0;
+        return findIdsWithinRadius(userId, userLat, userLon, radiusKm).length;
     }
 
     public List<bsns_Business> findAllWithinRadiusPaged(String userId, double userLat, double userLon, double radiusKm, int limit, int offset) {
-        double latDegree = radiusKm / 111.0;
-        double lonDegree = radiusKm / (111.0 * Math.cos(Math.toRadians(userLat)));
-        double minLat = userLat - latDegree;
-        double maxLat = userLat + latDegree;
-        double minLon = userLon - lonDegree;
-        double maxLon = userLon + lonDegree;
-        String sql = """
-            SELECT business_id, user_id, name, title, description, address, mobile_number, timings, googlemapsURL, latitude, longitude, created_at, active
-            FROM business
-            WHERE active = 1
-              AND latitude IS NOT NULL AND longitude IS NOT NULL
-              AND latitude BETWEEN ? AND ?
-              AND longitude BETWEEN ? AND ?
-              AND (6371 * acos(
-                cos(radians(?)) * cos(radians(latitude)) *
-                cos(radians(longitude) - radians(?)) +
-                sin(radians(?)) * sin(radians(latitude))
-              )) <= ?
-            ORDER BY created_at DESC
-            LIMIT ? OFFSET ?
-        """;
-        long start = System.currentTimeMillis();
-        List<bsns_Business> result = jdbcTemplate.query(sql, new Object[]{
-            minLat, maxLat, minLon, maxLon,
-            userLat, userLon, userLat, radiusKm, limit, offset
-        }, (rs, rowNum) -> mapRowToBusiness(rs));
-        long end = System.currentTimeMillis();
-        QueryLogger.log(sql, end - start);
+        return findByIdsInOrder(page(findIdsWithinRadius(null, userLat, userLon, radiusKm), limit, offset));
+    }
+
+    /**
+     * Ids of active businesses within radiusKm, newest first. Candidates come from the geo_cell
+     * index; the exact haversine check runs here as rows are read. When ownerId is given,
+     * that user's businesses are included regardless of distance. The result serves both the
+     * total count and any page of a feed, so one lookup answers a whole list request.
+     */
+    public int[] findIdsWithinRadius(String ownerId, double userLat, double userLon, double radiusKm) {
+        Candidates matches = scanWithinRadius(ownerId, userLat, userLon, radiusKm, null, Integer.MAX_VALUE);
+        return java.util.Arrays.copyOf(matches.ids, matches.size);
+    }
+
+    private static final int PAGE_SCAN_OVERFETCH = 3;
+    private static final int PAGE_SCAN_MIN_BATCH = 64;
+
+    /**
+     * Keyset variant of {@link #findIdsWithinRadius}: the (created_at, business_id) keys of at most
+     * limit businesses strictly after the cursor (or from the newest when cursor is null).
+     */
+    public List<FeedCursor> findKeysWithinRadius(String ownerId, double userLat, double userLon, double radiusKm, FeedCursor after, int limit) {
+        Candidates matches = scanWithinRadius(ownerId, userLat, userLon, radiusKm, after, limit);
+        List<FeedCursor> keys = new java.util.ArrayList<>(matches.size);
+        for (int i = 0; i < matches.size; i++) {
+            keys.add(new FeedCursor(matches.createdAts[i], matches.ids[i]));
+        }
+        return keys;
+    }
+
+    private Candidates scanWithinRadius(String ownerId, double userLat, double userLon, double radiusKm, FeedCursor after, int limit) {
+        List<long[]> ranges = GeoCell.coveringRanges(userLat, userLon, radiusKm);
+        StringBuilder where = new StringBuilder(" FROM business WHERE active = 1 AND (");
+        List<Object> params = new java.util.ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            where.append(i == 0 ? "" : " OR ").append("geo_cell BETWEEN ? AND ?");
+            params.add(ranges.get(i)[0]);
+            params.add(ranges.get(i)[1]);
+        }
+        if (ownerId != null) {
+            where.append(" OR user_id = ?");
+            params.add(ownerId);
+        }
+        where.append(")");
+        boolean bounded = limit < Integer.MAX_VALUE;
+        if (bounded) {
+            // Keyset pages resume from created_at, so rows without one cannot take part
+            where.append(" AND created_at IS NOT NULL");
+        }
+        // A page fetches a few times its size, since some cell candidates fall outside the radius,
+        // and only fetches again from the last row read if that was not enough
+        int batch = bounded ? Math.max(PAGE_SCAN_MIN_BATCH, limit * PAGE_SCAN_OVERFETCH) : 0;
+
+        Candidates found = new Candidates();
+        FeedCursor from = after;
+        while (true) {
+            StringBuilder sql = new StringBuilder("SELECT business_id, user_id, latitude, longitude, created_at").append(where);
+            List<Object> queryParams = new java.util.ArrayList<>(params);
+            if (from != null) {
+                sql.append(" AND ").append(FeedCursor.afterPredicate("created_at", "business_id"));
+                queryParams.addAll(java.util.Arrays.asList(from.afterParams()));
+            }
+            sql.append(" ORDER BY created_at DESC, business_id DESC");
+            if (bounded) {
+                sql.append(" LIMIT ?");
+                queryParams.add(batch);
+            }
+
+            long start = System.currentTimeMillis();
+            int[] rowsRead = new int[1];
+            // Rows arrive in feed order, so reading stops as soon as limit of them have matched
+            FeedCursor last = jdbcTemplate.query(sql.toString(), (ResultSetExtractor<FeedCursor>) rs -> {
+                FeedCursor lastRead = null;
+                while (found.size < limit && rs.next()) {
+                    rowsRead[0]++;
+                    int id = rs.getInt("business_id");
+                    String createdAt = rs.getString("created_at");
+                    lastRead = bounded ? new FeedCursor(createdAt, id) : null;
+                    boolean owned = ownerId != null && ownerId.equals(rs.getString("user_id"));
+                    double latitude = rs.getDouble("latitude");
+                    boolean hasLatitude = !rs.wasNull();
+                    double longitude = rs.getDouble("longitude");
+                    boolean hasLongitude = !rs.wasNull();
+                    if (owned || (hasLatitude && hasLongitude
+                            && GeoUtils.haversine(userLat, userLon, latitude, longitude) <= radiusKm)) {
+                        found.add(id, createdAt);
+                    }
+                }
+                return lastRead;
+            }, queryParams.toArray());
+            QueryLogger.log(sql.toString(), System.currentTimeMillis() - start);
+
+            // Done once limit matched, or the batch came back short and there are no more rows
+            if (!bounded || found.size >= limit || rowsRead[0] < batch) {
+                return found;
+            }
+            from = last;
+        }
+    }
+
+    public static int[] page(int[] ids, int limit, int offset) {
+        if (offset >= ids.length || limit <= 0) return new int[0];
+        return java.util.Arrays.copyOfRange(ids, Math.max(offset, 0), Math.min(ids.length, Math.max(offset, 0) + limit));
+    }
+
+    /**
+     * Loads the given businesses (without the image BLOB) in the order of the id array.
+     */
+    public List<bsns_Business> findByIdsInOrder(int[] ids) {
+        if (ids.length == 0) return java.util.Collections.emptyList();
+        String inSql = String.join(",", java.util.Collections.nCopies(ids.length, "?"));
+        String sql = "SELECT " + LIST_COLUMNS + " FROM business WHERE business_id IN (" + inSql + ")";
+        java.util.Map<Integer, bsns_Business> byId = new java.util.HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            bsns_Business b = mapRowToBusiness(rs);
+            byId.put(b.getBusinessId(), b);
+        }, java.util.Arrays.stream(ids).boxed().toArray());
+        List<bsns_Business> result = new java.util.ArrayList<>(ids.length);
+        for (int id : ids) {
+            bsns_Business b = byId.get(id);
+            if (b != null) result.add(b);
+        }
         return result;
     }
 
+    /**
+     * Growable primitive columns for spatial candidates.
+     */
+    private static final class Candidates {
+        private int[] ids = new int[64];
+        private String[] createdAts = new String[64];
+        private int size;
+
+        private void add(int id, String createdAt) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = java.util.Arrays.copyOf(ids, capacity);
+                createdAts = java.util.Arrays.copyOf(createdAts, capacity);
+            }
+            ids[size] = id;
+            createdAts[size] = createdAt;
+            size++;
+        }
+    }
+
     private bsns_Business mapRowToBusiness(ResultSet rs) throws SQLException {
         bsns_Business b = new bsns_Business();
         b.setBusinessId(rs.getInt("business_id"));
@@ -482,8 +584,21 @@ public class bsns_BusinessRepository {
         return b;
     }
 
-    public byte[] findImageByBusinessId(Integer businessId) {
-        String sql = "SELECT image FROM business WHERE business_id = ? AND active = 1";
+    public String findImageHashByBusinessId(Integer businessId) {
+        String sql = "SELECT image_hash FROM business WHERE business_id = ? AND active = 1";
+        return jdbcTemplate.query(sql, new Object[]{businessId}, rs -> {
+            if (rs.next()) {
+                return rs.getString("image_hash");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Image BLOB of a row that has not been moved to the image store yet.
+     */
+    public byte[] findLegacyImageByBusinessId(Integer businessId) {
+        String sql = "SELECT image FROM business WHERE business_id = ? AND image_hash IS NULL";
         return jdbcTemplate.query(sql, new Object[]{businessId}, rs -> {
             if (rs.next()) {
                 return rs.getBytes("image");
@@ -491,4 +606,17 @@ public class bsns_BusinessRepository {
             return null;
         });
     }
+
+    public List<Integer> findIdsWithLegacyImage(int limit) {
+        String sql = "SELECT business_id FROM business WHERE image IS NOT NULL AND image_hash IS NULL LIMIT ?";
+        return jdbcTemplate.queryForList(sql, Integer.class, limit);
+    }
+
+    /**
+     * Points a row at its stored image and drops the BLOB, so list queries no longer read it.
+     */
+    public int replaceLegacyImage(Integer businessId, String imageHash) {
+        String sql = "UPDATE business SET image_hash = ?, image = NULL WHERE business_id = ?";
+        return jdbcTemplate.update(sql, imageHash, businessId);
+    }
 } 
\ No newline at end of file
@@ -15,11 +15,22 @@ import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Value;
 import com.example.NearMeBKND.nearme.repository.UserLocationRepository;
 import com.example.NearMeBKND.nearme.model.UserLocation;
+import com.example.NearMeBKND.service.ImageStorageService;
+import com.example.NearMeBKND.service.ImageVariantService;
+import com.example.NearMeBKND.service.TagIndex;
+import com.example.NearMeBKND.util.FeedCursor;
 import com.example.NearMeBKND.util.LocationUtil;
 import com.example.NearMeBKND.Business.dto.BusinessDTO;
+import com.example.NearMeBKND.Business.dto.BusinessPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
 @Service
 public class bsns_BusinessService {
+    private static final Logger logger = LoggerFactory.getLogger(bsns_BusinessService.class);
+
     @Autowired
     private bsns_BusinessRepository businessRepository;
 
@@ -32,6 +43,15 @@ public class bsns_BusinessService {
     @Autowired
     private LocationUtil locationUtil;
 
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private TagIndex tagIndex;
+
     public void createBusiness(bsns_Business business, String userId) throws Exception {
         // Validate userId format
         if (!Pattern.matches("[A-Za-z]{3}\\d{3}", userId)) {
@@ -50,6 +70,11 @@ public class bsns_BusinessService {
             }
         }
         business.setUserId(userId);
+        if (business.getImage() != null) {
+            business.setImageHash(imageStorageService.store(business.getImage()));
+            imageVariantService.generateAsync(business.getImageHash(), business.getImage());
+            business.setImage(null);
+        }
         Integer businessId = businessRepository.save(business);
         // Save tags to business_tags table
         if (business.getTags() != null && !business.getTags().isBlank()) {
@@ -58,6 +83,27 @@ public class bsns_BusinessService {
         }
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTagIndex() {
+        try {
+            tagIndex.load(TagIndex.Domain.BUSINESS, businessRepository.findAllTags());
+        } catch (Exception e) {
+            logger.warn("Could not load business tag index: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillGeoCells() {
+        try {
+            int updated = businessRepository.backfillGeoCells();
+            if (updated > 0) {
+                logger.info("Backfilled geo_cell for {} businesses", updated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill business geo_cell: {}", e.getMessage());
+        }
+    }
+
     private Integer getLastInsertedBusinessId() {
         // This is a simple way for SQLite; for other DBs, use appropriate method
         return businessRepository.getLastInsertedBusinessId();
@@ -86,7 +132,13 @@ public class bsns_BusinessService {
         }
         UserLocation userLocation = userLocationRepository.findByUserId(userId)
             .orElseThrow(() -> new IllegalArgumentException("User location not found"));
-        java.util.List<String> tags = java.util.Arrays.asList(tagsParam.split(","));
+        java.util.List<String> tags = TagIndex.normalize(java.util.Arrays.asList(tagsParam.split(",")));
+        if (tagIndex.isLoaded(TagIndex.Domain.BUSINESS)) {
+            // Tag union in memory, then keep the nearby (or own) ids that carry a tag; newest first already
+            java.util.BitSet tagged = tagIndex.matchAny(TagIndex.Domain.BUSINESS, tags);
+            int[] nearby = businessRepository.findIdsWithinRadius(userId, userLocation.getLatitude(), userLocation.getLongitude(), businessRadiusKm);
+            return businessRepository.findByIdsInOrder(java.util.Arrays.stream(nearby).filter(tagged::get).toArray());
+        }
         java.util.List<bsns_Business> all = businessRepository.findByTags(tags);
         java.util.List<bsns_Business> filtered = new java.util.ArrayList<>();
         for (bsns_Business b : all) {
@@ -204,7 +256,10 @@ public class bsns_BusinessService {
         if (imageFile == null || imageFile.isEmpty()) {
             throw new IllegalArgumentException("No image file provided");
         }
-        int rows = businessRepository.updateImage(businessId, userId, imageFile.getBytes());
+        byte[] image = imageFile.getBytes();
+        String imageHash = imageStorageService.store(image);
+        imageVariantService.generateAsync(imageHash, image);
+        int rows = businessRepository.updateImageHash(businessId, userId, imageHash);
         return rows > 0;
     }
 
@@ -519,7 +574,98 @@ public class bsns_BusinessService {
         return businessRepository.findAllWithinRadiusPaged(userId, userLocation.getLatitude(), userLocation.getLongitude(), businessRadiusKm, size, offset);
     }
 
-    public byte[] getBusinessImage(Integer businessId) {
-        return businessRepository.findImageByBusinessId(businessId);
+    /**
+     * One page of businesses within the user's radius plus the total number of matches,
+     * both answered from a single spatial index lookup.
+     */
+    public BusinessPage getBusinessPageInRadius(String userId, int page, int size) {
+        UserLocation userLocation = userLocationRepository.findByUserId(userId)
+            .orElseThrow(() -> new IllegalArgumentException("User location not found"));
+        int[] ids = businessRepository.findIdsWithinRadius(null, userLocation.getLatitude(), userLocation.getLongitude(), businessRadiusKm);
+        java.util.List<bsns_Business> businesses = businessRepository.findByIdsInOrder(bsns_BusinessRepository.page(ids, size, page * size));
+        return new BusinessPage(businesses, ids.length);
+    }
+
+    /**
+     * Cursor-paginated variant of {@link #getBusinessPageInRadius}. The total is only computed
+     * when asked for, since it needs the whole radius rather than one page.
+     */
+    public BusinessPage getBusinessFeedInRadius(String userId, String cursor, int size, boolean includeTotal) {
+        UserLocation userLocation = userLocationRepository.findByUserId(userId)
+            .orElseThrow(() -> new IllegalArgumentException("User location not found"));
+        FeedCursor after = FeedCursor.decode(cursor);
+        java.util.List<FeedCursor> keys = businessRepository.findKeysWithinRadius(null, userLocation.getLatitude(), userLocation.getLongitude(), businessRadiusKm, after, size + 1);
+        boolean hasMore = keys.size() > size;
+        if (hasMore) {
+            keys = keys.subList(0, size);
+        }
+        int[] ids = keys.stream().mapToInt(key -> (int) key.id()).toArray();
+        Integer totalCount = includeTotal
+            ? businessRepository.findIdsWithinRadius(null, userLocation.getLatitude(), userLocation.getLongitude(), businessRadiusKm).length
+            : null;
+        return new BusinessPage(businessRepository.findByIdsInOrder(ids), totalCount,
+            hasMore ? keys.get(keys.size() - 1).encode() : null);
+    }
+
+    /**
+     * Content hash of a business image, moving a legacy BLOB into the image store on first access.
+     */
+    public String getBusinessImageHash(Integer businessId) {
+        String imageHash = businessRepository.findImageHashByBusinessId(businessId);
+        if (imageHash != null) {
+            return imageHash;
+        }
+        return migrateLegacyImage(businessId);
+    }
+
+    public java.nio.file.Path getImagePath(String imageHash) {
+        return imageStorageService.find(imageHash);
+    }
+
+    /**
+     * Path of the requested variant, or null when the full image should be served instead.
+     */
+    public java.nio.file.Path getImageVariantPath(String imageHash, ImageVariantService.Size size) {
+        java.nio.file.Path original = imageStorageService.find(imageHash);
+        if (original == null) {
+            return null;
+        }
+        return imageVariantService.findOrSchedule(imageHash, size, () -> {
+            try {
+                return java.nio.file.Files.readAllBytes(original);
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        int migrated = 0;
+        try {
+            java.util.List<Integer> ids;
+            while (!(ids = businessRepository.findIdsWithLegacyImage(50)).isEmpty()) {
+                for (Integer businessId : ids) {
+                    if (migrateLegacyImage(businessId) != null) {
+                        migrated++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not move business images to the image store: {}", e.getMessage());
+        }
+        if (migrated > 0) {
+            logger.info("Moved {} business images to the image store", migrated);
+        }
+    }
+
+    private String migrateLegacyImage(Integer businessId) {
+        byte[] image = businessRepository.findLegacyImageByBusinessId(businessId);
+        if (image == null) {
+            return null;
+        }
+        String imageHash = imageStorageService.store(image);
+        businessRepository.replaceLegacyImage(businessId, imageHash);
+        return imageHash;
     }
 }
\ No newline at end of file
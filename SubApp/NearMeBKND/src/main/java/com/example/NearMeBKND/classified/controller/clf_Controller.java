@@ -4,10 +4,13 @@ import com.example.NearMeBKND.classified.model.Classified;
 import com.example.NearMeBKND.classified.model.ClassifiedDTO;
 import com.example.NearMeBKND.classified.service.ClassifiedService;
 import com.example.NearMeBKND.classified.util.UserContext;
+import com.example.NearMeBKND.service.ImageStorageService;
+import com.example.NearMeBKND.service.ImageVariantService;
 import com.example.NearMeBKND.service.UserLocationService;
 import com.example.NearMeBKND.util.GeoUtils;
 import com.example.NearMeBKND.nearme.model.UserLocation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +38,9 @@ public class clf_Controller {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> addClassified(
         @RequestPart("classified") String classifiedJson,
@@ -70,14 +76,42 @@ public class clf_Controller {
     }
 
     @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getClassifiedImage(@PathVariable int id) {
-        Classified classified = service.getClassifiedById(id);
-        if (classified == null || classified.getImageUrl() == null) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<?> getClassifiedImage(@PathVariable int id,
+                                                @RequestParam(value = "size", defaultValue = "full") String size) {
+        ImageVariantService.Size variantSize;
+        try {
+            variantSize = ImageVariantService.Size.parse(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        // The BLOB is only read for the full image, or to generate a variant off the request thread
+        String hash = service.getClassifiedImageHash(id);
+        byte[] image = null;
+        if (hash == null) {
+            // No image, or one stored before image_hash existed and not backfilled yet
+            image = service.getClassifiedImage(id);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
+            }
+            hash = ImageStorageService.contentHash(image);
+        }
+        java.nio.file.Path variant = imageVariantService.findOrSchedule(hash, variantSize, () -> service.getClassifiedImage(id));
+        if (variant != null) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .eTag(hash + "-" + size.toLowerCase())
+                .body(new FileSystemResource(variant));
+        }
+        if (image == null) {
+            image = service.getClassifiedImage(id);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
+            }
         }
         return ResponseEntity.ok()
             .contentType(MediaType.IMAGE_JPEG)
-            .body(classified.getImageUrl());
+            .eTag(hash)
+            .body(image);
     }
 
     @GetMapping("/{id}")
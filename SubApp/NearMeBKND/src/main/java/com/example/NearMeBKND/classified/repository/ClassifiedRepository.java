@@ -2,6 +2,7 @@ package com.example.NearMeBKND.classified.repository;
 
 import com.example.NearMeBKND.classified.model.Classified;
 import com.example.NearMeBKND.classified.util.UserContext;
+import com.example.NearMeBKND.service.ImageStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -16,6 +17,9 @@ import java.util.*;
 @Repository
 public class ClassifiedRepository {
 
+    // Everything but image_url; the BLOB is only read by getClassifiedImage
+    private static final String COLUMNS = "id, title, description, price, categories, user_id, latitude, longitude, created_at";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -28,7 +32,7 @@ public class ClassifiedRepository {
             int id = -1;
             try (
                 PreparedStatement ps = connection.prepareStatement(
-                    "INSERT INTO clf_classified (title, description, price, image_url, categories, user_id, latitude, longitude, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)"
+                    "INSERT INTO clf_classified (title, description, price, image_url, categories, user_id, latitude, longitude, image_hash, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)"
                 )
             ) {
                 ps.setString(1, classified.getTitle());
@@ -47,6 +51,7 @@ public class ClassifiedRepository {
                 } else {
                     ps.setNull(8, java.sql.Types.DOUBLE);
                 }
+                ps.setString(9, classified.getImageUrl() != null ? ImageStorageService.contentHash(classified.getImageUrl()) : null);
 
                 int rows = ps.executeUpdate();
                 if (rows == 0) {
@@ -104,7 +109,7 @@ public class ClassifiedRepository {
 
     public Classified getClassifiedById(int id) {
         Classified classified = jdbcTemplate.queryForObject(
-            "SELECT * FROM clf_classified WHERE id = ?",
+            "SELECT " + COLUMNS + " FROM clf_classified WHERE id = ?",
             (rs, rowNum) -> mapClassified(rs),
             id
         );
@@ -116,6 +121,44 @@ public class ClassifiedRepository {
         return classified;
     }
 
+    /**
+     * Image bytes of a classified, or null if it has none or does not exist.
+     */
+    public byte[] getClassifiedImage(int id) {
+        return jdbcTemplate.query(
+            "SELECT image_url FROM clf_classified WHERE id = ?",
+            rs -> rs.next() ? rs.getBytes("image_url") : null,
+            id
+        );
+    }
+
+    /**
+     * Stored content hash of a classified's image, or null if it has none, does not exist or has
+     * not been hashed yet.
+     */
+    public String findImageHash(int id) {
+        return jdbcTemplate.query(
+            "SELECT image_hash FROM clf_classified WHERE id = ?",
+            rs -> rs.next() ? rs.getString("image_hash") : null,
+            id
+        );
+    }
+
+    /**
+     * Hashes up to {@code limit} images stored before image_hash existed, returning how many.
+     */
+    public int backfillImageHashes(int limit) {
+        List<Object[]> batch = jdbcTemplate.query(
+            "SELECT id, image_url FROM clf_classified WHERE image_url IS NOT NULL AND image_hash IS NULL LIMIT ?",
+            (rs, rowNum) -> new Object[]{ImageStorageService.contentHash(rs.getBytes("image_url")), rs.getInt("id")},
+            limit
+        );
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE clf_classified SET image_hash = ? WHERE id = ?", batch);
+        }
+        return batch.size();
+    }
+
     public List<String> getAllCategories() {
         return jdbcTemplate.queryForList("SELECT name FROM clf_category", String.class);
     }
@@ -140,7 +183,6 @@ public class ClassifiedRepository {
         classified.setTitle(rs.getString("title"));
         classified.setDescription(rs.getString("description"));
         classified.setPrice(rs.getInt("price"));
-        classified.setImageUrl(rs.getBytes("image_url"));
         classified.setImageUrlString("/api/classified/" + classified.getId() + "/image");
         classified.setUserId(rs.getString("user_id"));
         classified.setCreatedAt(rs.getString("created_at"));
@@ -215,7 +257,7 @@ public class ClassifiedRepository {
 
     public List<Classified> getAllClassifiedsRaw() {
         List<Classified> classifieds = jdbcTemplate.query(
-            "SELECT * FROM clf_classified",
+            "SELECT " + COLUMNS + " FROM clf_classified",
             (rs, rowNum) -> mapClassified(rs)
         );
         for (Classified classified : classifieds) {
@@ -235,7 +277,7 @@ public class ClassifiedRepository {
         double maxLon = userLon + lonDegree;
 
         String sql = """
-            SELECT *, (6371 * acos(
+            SELECT id, title, description, price, categories, user_id, latitude, longitude, created_at, (6371 * acos(
                 cos(radians(?)) * cos(radians(latitude)) *
                 cos(radians(longitude) - radians(?)) +
                 sin(radians(?)) * sin(radians(latitude))
@@ -261,7 +303,7 @@ public class ClassifiedRepository {
 
     public int countClassifiedsInRadius(double userLat, double userLon, double radiusKm) {
         String sql = "SELECT COUNT(*) FROM (" +
-                "SELECT * FROM clf_classified " +
+                "SELECT id FROM clf_classified " +
                 "WHERE latitude IS NOT NULL AND longitude IS NOT NULL " +
                 "AND (6371 * acos(" +
                 "cos(radians(?)) * cos(radians(latitude)) * " +
@@ -4,13 +4,19 @@ import com.example.NearMeBKND.classified.model.Classified;
 import com.example.NearMeBKND.classified.model.ClfQuestion;
 import com.example.NearMeBKND.classified.repository.ClassifiedRepository;
 import com.example.NearMeBKND.classified.repository.ClfQuestionRepository;
+import com.example.NearMeBKND.service.ImageVariantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 public class ClassifiedService {
+    private static final Logger logger = LoggerFactory.getLogger(ClassifiedService.class);
 
     @Autowired
     private ClassifiedRepository repository;
@@ -18,8 +24,14 @@ public class ClassifiedService {
     @Autowired
     private ClfQuestionRepository questionRepository;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     public Classified createClassified(Classified classified) {
         int id = repository.saveClassified(classified);
+        if (classified.getImageUrl() != null) {
+            imageVariantService.generateAsync(repository.findImageHash(id), classified.getImageUrl());
+        }
         return repository.getClassifiedById(id);
     }
 
@@ -27,6 +39,30 @@ public class ClassifiedService {
         return repository.getClassifiedById(id);
     }
 
+    public byte[] getClassifiedImage(int id) {
+        return repository.getClassifiedImage(id);
+    }
+
+    public String getClassifiedImageHash(int id) {
+        return repository.findImageHash(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageHashes() {
+        int updated = 0;
+        try {
+            int batch;
+            while ((batch = repository.backfillImageHashes(50)) > 0) {
+                updated += batch;
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill classified image_hash: {}", e.getMessage());
+        }
+        if (updated > 0) {
+            logger.info("Backfilled image_hash for {} classifieds", updated);
+        }
+    }
+
     public List<String> getAllCategories() {
         return repository.getAllCategories();
     }
@@ -94,18 +94,15 @@ public class EmergencyMessageController {
         @RequestParam("types") String types,
         @RequestHeader("X-User-ID") String currentUserId
     ) {
-        List<String> typeList = Arrays.asList(types.split(","));
-        List<EmergencyMessage> allMessages = repository.findByTypes(typeList);
+        List<String> typeList = Arrays.stream(types.split(","))
+            .map(String::trim)
+            .filter(type -> !type.isEmpty())
+            .distinct()
+            .toList();
         UserLocation currentUserLoc = userLocationService.getUserLocation(currentUserId);
-        // Filter messages by 15 km radius
-        List<EmergencyMessage> filtered = allMessages.stream().filter(msg -> {
-            UserLocation ownerLoc = userLocationService.getUserLocation(msg.getUserId());
-            double distance = GeoUtils.haversine(
-                currentUserLoc.getLatitude(), currentUserLoc.getLongitude(),
-                ownerLoc.getLatitude(), ownerLoc.getLongitude()
-            );
-            return distance <= 15.0;
-        }).toList();
+        // Type and 15 km radius filter in one query, against each message's stored location
+        List<EmergencyMessage> filtered = repository.findByTypesWithinRadius(
+            typeList, currentUserLoc.getLatitude(), currentUserLoc.getLongitude(), 15.0);
         return ResponseEntity.ok(filtered);
     }
 
@@ -12,6 +12,10 @@ import java.util.*;
 
 public class EmergencyMessageRowMapper implements RowMapper<EmergencyMessage> {
 
+    /** Column holding a message's types joined with {@link #TYPE_SEPARATOR} by group_concat. */
+    public static final String TYPE_LIST_COLUMN = "type_list";
+    public static final String TYPE_SEPARATOR = "\u001F";
+
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -19,6 +23,13 @@ public class EmergencyMessageRowMapper implements RowMapper<EmergencyMessage> {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    /**
+     * Mapper for queries that select {@link #TYPE_LIST_COLUMN}; it never queries message_type_map.
+     */
+    public static EmergencyMessageRowMapper withTypeList() {
+        return new EmergencyMessageRowMapper(null);
+    }
+
     @Override
     public EmergencyMessage mapRow(ResultSet rs, int rowNum) throws SQLException {
         EmergencyMessage message = new EmergencyMessage();
@@ -53,12 +64,19 @@ public class EmergencyMessageRowMapper implements RowMapper<EmergencyMessage> {
             message.setDetails(new HashMap<>());
         }
 
-        // Fetch types from message_type_map
-        List<String> types = jdbcTemplate.queryForList(
-                "SELECT type FROM message_type_map WHERE message_id = ?",
-                String.class,
-                message.getId());
-        message.setTypes(types);
+        if (jdbcTemplate == null) {
+            String typeList = rs.getString(TYPE_LIST_COLUMN);
+            message.setTypes(typeList != null
+                    ? new ArrayList<>(Arrays.asList(typeList.split(TYPE_SEPARATOR)))
+                    : new ArrayList<>());
+        } else {
+            // Fetch types from message_type_map
+            List<String> types = jdbcTemplate.queryForList(
+                    "SELECT type FROM message_type_map WHERE message_id = ?",
+                    String.class,
+                    message.getId());
+            message.setTypes(types);
+        }
 
         return message;
     }
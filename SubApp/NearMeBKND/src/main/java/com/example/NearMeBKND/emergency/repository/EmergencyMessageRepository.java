@@ -110,6 +110,42 @@ public class EmergencyMessageRepository {
         return jdbcTemplate.query(sql, types.toArray(), new EmergencyMessageRowMapper(jdbcTemplate));
     }
 
+    /**
+     * Messages within radiusKm of the given point, by their own stored coordinates, that have any
+     * of the given types (or any type when the list is empty). Newest first. Types are collected
+     * with group_concat in the same statement, so this is one round-trip however many match.
+     */
+    public List<EmergencyMessage> findByTypesWithinRadius(List<String> types, double userLat, double userLon, double radiusKm) {
+        double latDelta = radiusKm / 111.0;
+        double lonDelta = radiusKm / (111.0 * Math.cos(Math.toRadians(userLat)));
+        String typeFilter = types.isEmpty() ? "" : """
+              AND em.id IN (SELECT message_id FROM message_type_map WHERE type IN (%s))
+            """.formatted(String.join(",", Collections.nCopies(types.size(), "?")));
+        String sql = """
+            SELECT em.id, em.title, em.description, em.details, em.google_maps_location, em.user_id,
+                   em.latitude, em.longitude, em.created_at,
+                   group_concat(map.type, char(31)) AS type_list
+            FROM emergency_message em
+            LEFT JOIN message_type_map map ON map.message_id = em.id
+            WHERE em.latitude BETWEEN ? AND ?
+              AND em.longitude BETWEEN ? AND ?
+              AND (6371 * acos(
+                cos(radians(?)) * cos(radians(em.latitude)) *
+                cos(radians(em.longitude) - radians(?)) +
+                sin(radians(?)) * sin(radians(em.latitude))
+              )) <= ?
+            """ + typeFilter + """
+            GROUP BY em.id
+            ORDER BY em.created_at DESC
+        """;
+        List<Object> params = new ArrayList<>(List.of(
+            userLat - latDelta, userLat + latDelta,
+            userLon - lonDelta, userLon + lonDelta,
+            userLat, userLon, userLat, radiusKm));
+        params.addAll(types);
+        return jdbcTemplate.query(sql, EmergencyMessageRowMapper.withTypeList(), params.toArray());
+    }
+
     public List<EmergencyMessage> findByDetails(Map<String, String> filters) {
         String baseQuery = "SELECT * FROM emergency_message";
 
@@ -6,6 +6,7 @@ import com.example.NearMeBKND.meetup.model.MeetupNoteUpdate;
 import com.example.NearMeBKND.meetup.service.MeetupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,7 +16,10 @@ import org.springframework.http.MediaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.NearMeBKND.util.GeoUtils;
+import com.example.NearMeBKND.service.ImageStorageService;
+import com.example.NearMeBKND.service.ImageVariantService;
 import com.example.NearMeBKND.service.UserLocationService;
+import com.example.NearMeBKND.util.CursorPage;
 import com.example.NearMeBKND.util.QueryLogger;
 
 import java.util.Arrays;
@@ -30,23 +34,45 @@ public class MeetupController {
     private final MeetupService meetupService;
     private final ObjectMapper objectMapper;
     private final UserLocationService userLocationService;
+    private final ImageVariantService imageVariantService;
 
     @Autowired
-    public MeetupController(MeetupService meetupService, ObjectMapper objectMapper, UserLocationService userLocationService) {
+    public MeetupController(MeetupService meetupService, ObjectMapper objectMapper, UserLocationService userLocationService,
+                            ImageVariantService imageVariantService) {
         this.meetupService = meetupService;
         this.objectMapper = objectMapper;
         this.userLocationService = userLocationService;
+        this.imageVariantService = imageVariantService;
     }
 
     @GetMapping("/")
     public ResponseEntity<?> getAllMeetups(
             @RequestHeader("X-User-ID") String userId,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "30") int size) {
-        logger.debug("GET /api/meetups called by userId={}, page={}, size={}", userId, page, size);
+            @RequestParam(value = "size", defaultValue = "30") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        logger.debug("GET /api/meetups called by userId={}, page={}, size={}, cursor={}", userId, page, size, cursor);
         long requestStart = System.currentTimeMillis();
         QueryLogger.clear();
         try {
+            if (cursor != null) {
+                // Cursor mode: pass cursor= (empty) for the first page, then each response's nextCursor
+                CursorPage<MeetupDTO> feed = meetupService.findInRadiusAfter(cursor, size, userId);
+                java.util.Map<String, Object> response = new java.util.LinkedHashMap<>();
+                response.put("success", true);
+                response.put("message", "Operation successful");
+                response.put("size", size);
+                response.put("count", feed.items().size());
+                response.put("nextCursor", feed.nextCursor());
+                if (includeTotal) {
+                    response.put("totalCount", meetupService.countAllWithinRadius(userId));
+                }
+                response.put("data", feed.items());
+                response.put("queries", QueryLogger.getQueries());
+                response.put("totalRequestTimeMs", System.currentTimeMillis() - requestStart);
+                return ResponseEntity.ok(response);
+            }
             int offset = page * size;
             logger.debug("Calculated offset: {} (page * size)", offset);
             int total = meetupService.countAllWithinRadius(userId);
@@ -166,12 +192,38 @@ public class MeetupController {
     }
 
     @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getMeetupImage(@PathVariable Long id) {
-        byte[] image = meetupService.getImageById(id);
+    public ResponseEntity<?> getMeetupImage(@PathVariable Long id,
+                                            @RequestParam(value = "size", defaultValue = "full") String size) {
+        ImageVariantService.Size variantSize;
+        try {
+            variantSize = ImageVariantService.Size.parse(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        // The BLOB is only read for the full image, or to generate a variant off the request thread
+        String hash = meetupService.getImageHashById(id);
+        byte[] image = null;
+        if (hash == null) {
+            // No image, or one stored before image_hash existed and not backfilled yet
+            image = meetupService.getImageById(id);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
+            }
+            hash = ImageStorageService.contentHash(image);
+        }
+        java.nio.file.Path variant = imageVariantService.findOrSchedule(hash, variantSize, () -> meetupService.getImageById(id));
+        if (variant != null) {
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG)
+                    .eTag(hash + "-" + size.toLowerCase())
+                    .body(new FileSystemResource(variant));
+        }
         if (image == null) {
-            return ResponseEntity.notFound().build();
+            image = meetupService.getImageById(id);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
+            }
         }
-        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(image);
+        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).eTag(hash).body(image);
     }
 
     @GetMapping("/{id}")
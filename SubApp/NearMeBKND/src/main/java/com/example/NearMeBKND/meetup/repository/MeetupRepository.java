@@ -1,17 +1,30 @@
 package com.example.NearMeBKND.meetup.repository;
 
 import com.example.NearMeBKND.meetup.model.Meetup;
+import com.example.NearMeBKND.meetup.model.MeetupQuestionDTO;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.NearMeBKND.service.ImageStorageService;
+import com.example.NearMeBKND.service.TagIndex;
+import com.example.NearMeBKND.util.CursorPage;
+import com.example.NearMeBKND.util.FeedCursor;
+import com.example.NearMeBKND.util.GeoCell;
+import com.example.NearMeBKND.util.GeoUtils;
 import com.example.NearMeBKND.util.QueryLogger;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet;
@@ -21,86 +34,262 @@ import java.time.format.DateTimeFormatter;
 @Repository
 public class MeetupRepository {
     private final JdbcTemplate jdbcTemplate;
+    private final TagIndex tagIndex;
     private final RowMapper<Meetup> meetupRowMapper;
     private static final Logger logger = LoggerFactory.getLogger(MeetupRepository.class);
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int IN_CHUNK_SIZE = 500;
+    // Every mtp_meetup column except the image_url BLOB, which only findImageById reads
+    private static final String DETAIL_COLUMNS = "id, organizer_name, title, description, start_date, start_time, end_date, end_time, "
+        + "organizer_id, event_address, google_location_url, created_at, is_active, max_participants, contact_info, latitude, longitude";
 
-    public MeetupRepository(JdbcTemplate jdbcTemplate) {
+    public MeetupRepository(JdbcTemplate jdbcTemplate, TagIndex tagIndex) {
         this.jdbcTemplate = jdbcTemplate;
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        this.meetupRowMapper = (rs, rowNum) -> {
-            Meetup meetup = new Meetup();
-            meetup.setId(rs.getLong("id"));
-            meetup.setOrganizerName(rs.getString("organizer_name"));
-            meetup.setTitle(rs.getString("title"));
-            meetup.setDescription(rs.getString("description"));
-            String tagsString = String.join(", ", getMeetupTags(meetup.getId()));
-            meetup.setTags(tagsString);
-            // Fetch and set all notes for this meetup
-            String allNotesSql = "SELECT note FROM mtp_note WHERE meetup_id = ? ORDER BY id ASC";
-            List<String> allNotes = jdbcTemplate.queryForList(allNotesSql, String.class, meetup.getId());
-            meetup.setNotes(allNotes);
-            // Fetch and set all questions for this meetup
-            String allQuestionsSql = "SELECT user_id, content, created_at FROM mtp_meetup_question WHERE meetup_id = ? ORDER BY id ASC";
-            List<com.example.NearMeBKND.meetup.model.MeetupQuestionDTO> allQuestions = jdbcTemplate.query(
-                allQuestionsSql,
-                (qrs, qrowNum) -> {
-                    com.example.NearMeBKND.meetup.model.MeetupQuestionDTO q = new com.example.NearMeBKND.meetup.model.MeetupQuestionDTO();
-                    q.setUserId(qrs.getString("user_id"));
-                    q.setContent(qrs.getString("content"));
-                    try {
-                        String timestampStr = qrs.getString("created_at");
-                        if (timestampStr != null) {
-                            q.setCreatedAt(java.time.LocalDateTime.parse(timestampStr, dtf));
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing timestamp for question: {}", e.getMessage());
-                        q.setCreatedAt(java.time.LocalDateTime.now());
-                    }
-                    return q;
-                },
-                meetup.getId()
-            );
-            meetup.setQuestions(allQuestions);
-            meetup.setStartDate(LocalDate.parse(rs.getString("start_date")));
-            meetup.setStartTime(LocalTime.parse(rs.getString("start_time")));
-            meetup.setEndDate(LocalDate.parse(rs.getString("end_date")));
-            meetup.setEndTime(LocalTime.parse(rs.getString("end_time")));
-            meetup.setOrganizerId(rs.getString("organizer_id"));
-            meetup.setEventAddress(rs.getString("event_address"));
-            meetup.setImageUrl(rs.getBytes("image_url"));
-            meetup.setGoogleLocationURL(rs.getString("google_location_url"));
-            meetup.setCreatedAt(LocalDateTime.parse(rs.getString("created_at"), dtf));
-            meetup.setIsActive(rs.getBoolean("is_active"));
-            meetup.setMaxParticipants(rs.getInt("max_participants"));
-            meetup.setContactInfo(rs.getString("contact_info"));
-            return meetup;
-        };
+        this.tagIndex = tagIndex;
+        // Maps DETAIL_COLUMNS only; tags, notes and questions are attached by attachChildren
+        this.meetupRowMapper = (rs, rowNum) -> mapMeetup(rs);
+    }
+
+    private static Meetup mapMeetup(ResultSet rs) throws SQLException {
+        Meetup meetup = new Meetup();
+        meetup.setId(rs.getLong("id"));
+        meetup.setOrganizerName(rs.getString("organizer_name"));
+        meetup.setTitle(rs.getString("title"));
+        meetup.setDescription(rs.getString("description"));
+        meetup.setStartDate(LocalDate.parse(rs.getString("start_date")));
+        meetup.setStartTime(LocalTime.parse(rs.getString("start_time")));
+        meetup.setEndDate(LocalDate.parse(rs.getString("end_date")));
+        meetup.setEndTime(LocalTime.parse(rs.getString("end_time")));
+        meetup.setOrganizerId(rs.getString("organizer_id"));
+        meetup.setEventAddress(rs.getString("event_address"));
+        meetup.setGoogleLocationURL(rs.getString("google_location_url"));
+        meetup.setCreatedAt(LocalDateTime.parse(rs.getString("created_at"), DATE_TIME_FORMAT));
+        meetup.setIsActive(rs.getBoolean("is_active"));
+        meetup.setMaxParticipants(rs.getInt("max_participants"));
+        meetup.setContactInfo(rs.getString("contact_info"));
+        meetup.setLatitude(rs.getObject("latitude") != null ? rs.getDouble("latitude") : null);
+        meetup.setLongitude(rs.getObject("longitude") != null ? rs.getDouble("longitude") : null);
+        return meetup;
     }
 
     public List<Meetup> findAll() {
-        return jdbcTemplate.query(
-            "SELECT * FROM mtp_meetup WHERE is_active = true",
-            meetupRowMapper
+        return queryWithChildren(
+            "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE is_active = true"
         );
     }
 
     public Optional<Meetup> findById(Long id) {
-        List<Meetup> results = jdbcTemplate.query(
-            "SELECT * FROM mtp_meetup WHERE id = ? AND is_active = true",
-            meetupRowMapper,
+        List<Meetup> results = queryWithChildren(
+            "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE id = ? AND is_active = true",
             id
         );
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
-    public List<Meetup> findByOrganizerId(String organizerId) {
+    /**
+     * Image bytes of an active meetup, or null if it has none or does not exist.
+     */
+    public byte[] findImageById(Long id) {
         return jdbcTemplate.query(
-            "SELECT * FROM mtp_meetup WHERE organizer_id = ? AND is_active = true",
-            meetupRowMapper,
+            "SELECT image_url FROM mtp_meetup WHERE id = ? AND is_active = true",
+            rs -> rs.next() ? rs.getBytes("image_url") : null,
+            id
+        );
+    }
+
+    /**
+     * Stored content hash of an active meetup's image, or null if it has none, does not exist or
+     * has not been hashed yet.
+     */
+    public String findImageHashById(Long id) {
+        return jdbcTemplate.query(
+            "SELECT image_hash FROM mtp_meetup WHERE id = ? AND is_active = true",
+            rs -> rs.next() ? rs.getString("image_hash") : null,
+            id
+        );
+    }
+
+    public List<Meetup> findByOrganizerId(String organizerId) {
+        return queryWithChildren(
+            "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE organizer_id = ? AND is_active = true",
             organizerId
         );
     }
 
+    /**
+     * Active meetups within radiusKm, with children but without the image BLOB. Candidates come
+     * from the geo_cell index and are checked exactly with haversine. When ownerId is given, that
+     * user's meetups are included regardless of distance.
+     */
+    public List<Meetup> findWithinRadius(String ownerId, double userLat, double userLon, double radiusKm) {
+        return findNearby(null, ownerId, userLat, userLon, radiusKm, null);
+    }
+
+    /**
+     * {@link #findWithinRadius}, keeping only the meetups whose id is set in the bitmap.
+     */
+    public List<Meetup> findWithinRadius(String ownerId, double userLat, double userLon, double radiusKm, BitSet ids) {
+        return findNearby(null, ownerId, userLat, userLon, radiusKm, ids);
+    }
+
+    /**
+     * The organizer's active meetups within radiusKm, with children but without the image BLOB.
+     */
+    public List<Meetup> findByOrganizerWithinRadius(String organizerId, double userLat, double userLon, double radiusKm) {
+        return findNearby(organizerId, null, userLat, userLon, radiusKm, null);
+    }
+
+    private List<Meetup> findNearby(String organizerId, String ownerId, double userLat, double userLon, double radiusKm, BitSet ids) {
+        List<long[]> ranges = GeoCell.coveringRanges(userLat, userLon, radiusKm);
+        StringBuilder sql = new StringBuilder("SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE is_active = true");
+        List<Object> params = new ArrayList<>();
+        if (organizerId != null) {
+            sql.append(" AND organizer_id = ?");
+            params.add(organizerId);
+        }
+        sql.append(" AND (");
+        for (int i = 0; i < ranges.size(); i++) {
+            sql.append(i == 0 ? "" : " OR ").append("geo_cell BETWEEN ? AND ?");
+            params.add(ranges.get(i)[0]);
+            params.add(ranges.get(i)[1]);
+        }
+        if (ownerId != null) {
+            sql.append(" OR organizer_id = ?");
+            params.add(ownerId);
+        }
+        sql.append(")");
+
+        long start = System.currentTimeMillis();
+        List<Meetup> meetups = jdbcTemplate.query(sql.toString(), meetupRowMapper, params.toArray());
+        meetups.removeIf(m -> (ids != null && !ids.get(Math.toIntExact(m.getId())))
+            || (!(ownerId != null && ownerId.equals(m.getOrganizerId()))
+                && (m.getLatitude() == null || m.getLongitude() == null
+                    || GeoUtils.haversine(userLat, userLon, m.getLatitude(), m.getLongitude()) > radiusKm)));
+        QueryLogger.log(sql.toString(), System.currentTimeMillis() - start);
+        attachChildren(meetups);
+        return meetups;
+    }
+
+    /**
+     * Fills geo_cell for rows written before the column existed. Returns the number of rows updated.
+     */
+    public int backfillGeoCells() {
+        String sql = "SELECT id, latitude, longitude FROM mtp_meetup WHERE geo_cell IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL";
+        List<Object[]> batch = jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{
+            GeoCell.encode(rs.getDouble("latitude"), rs.getDouble("longitude")),
+            rs.getLong("id")
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE mtp_meetup SET geo_cell = ? WHERE id = ?", batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Hashes up to {@code limit} images stored before image_hash existed, returning how many.
+     */
+    public int backfillImageHashes(int limit) {
+        List<Object[]> batch = jdbcTemplate.query(
+            "SELECT id, image_url FROM mtp_meetup WHERE image_url IS NOT NULL AND image_hash IS NULL LIMIT ?",
+            (rs, rowNum) -> new Object[]{ImageStorageService.contentHash(rs.getBytes("image_url")), rs.getLong("id")},
+            limit
+        );
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE mtp_meetup SET image_hash = ? WHERE id = ?", batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Runs a parent query with {@link #meetupRowMapper}, then loads the children of all returned
+     * meetups in one query per child table instead of three queries per row.
+     */
+    private List<Meetup> queryWithChildren(String sql, Object... args) {
+        long start = System.currentTimeMillis();
+        List<Meetup> meetups = jdbcTemplate.query(sql, meetupRowMapper, args);
+        QueryLogger.log(sql, System.currentTimeMillis() - start);
+        attachChildren(meetups);
+        return meetups;
+    }
+
+    /**
+     * Sets tags, notes and questions on every meetup in the list.
+     */
+    public void attachChildren(List<Meetup> meetups) {
+        if (meetups.isEmpty()) {
+            return;
+        }
+        attachTags(meetups);
+        Map<Long, List<String>> notes = new HashMap<>();
+        forEachChunk(meetups, ids -> {
+            String sql = "SELECT meetup_id, note FROM mtp_note WHERE meetup_id IN (" + placeholders(ids.size()) + ") ORDER BY id ASC";
+            long start = System.currentTimeMillis();
+            jdbcTemplate.query(sql, rs -> {
+                notes.computeIfAbsent(rs.getLong("meetup_id"), k -> new ArrayList<>()).add(rs.getString("note"));
+            }, ids.toArray());
+            QueryLogger.log(sql, System.currentTimeMillis() - start);
+        });
+        Map<Long, List<MeetupQuestionDTO>> questions = new HashMap<>();
+        forEachChunk(meetups, ids -> {
+            String sql = "SELECT meetup_id, user_id, content, created_at FROM mtp_meetup_question WHERE meetup_id IN (" + placeholders(ids.size()) + ") ORDER BY id ASC";
+            long start = System.currentTimeMillis();
+            jdbcTemplate.query(sql, rs -> {
+                questions.computeIfAbsent(rs.getLong("meetup_id"), k -> new ArrayList<>()).add(mapQuestion(rs));
+            }, ids.toArray());
+            QueryLogger.log(sql, System.currentTimeMillis() - start);
+        });
+        for (Meetup meetup : meetups) {
+            meetup.setNotes(notes.getOrDefault(meetup.getId(), new ArrayList<>()));
+            meetup.setQuestions(questions.getOrDefault(meetup.getId(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Sets the comma-separated tags on every meetup in the list; enough for list views.
+     */
+    public void attachTags(List<Meetup> meetups) {
+        Map<Long, Set<String>> tags = new HashMap<>();
+        forEachChunk(meetups, ids -> {
+            String sql = "SELECT meetupId, tag FROM mtp_meetup_tag WHERE meetupId IN (" + placeholders(ids.size()) + ")";
+            long start = System.currentTimeMillis();
+            jdbcTemplate.query(sql, rs -> {
+                tags.computeIfAbsent(rs.getLong("meetupId"), k -> new HashSet<>()).add(rs.getString("tag"));
+            }, ids.toArray());
+            QueryLogger.log(sql, System.currentTimeMillis() - start);
+        });
+        for (Meetup meetup : meetups) {
+            meetup.setTags(String.join(", ", tags.getOrDefault(meetup.getId(), Set.of())));
+        }
+    }
+
+    private static MeetupQuestionDTO mapQuestion(ResultSet rs) throws SQLException {
+        MeetupQuestionDTO q = new MeetupQuestionDTO();
+        q.setUserId(rs.getString("user_id"));
+        q.setContent(rs.getString("content"));
+        try {
+            String timestampStr = rs.getString("created_at");
+            if (timestampStr != null) {
+                q.setCreatedAt(LocalDateTime.parse(timestampStr, DATE_TIME_FORMAT));
+            }
+        } catch (Exception e) {
+            logger.warn("Error parsing timestamp for question: {}", e.getMessage());
+            q.setCreatedAt(LocalDateTime.now());
+        }
+        return q;
+    }
+
+    // Keeps each IN (...) list well under SQLite's bound-parameter limit
+    private static void forEachChunk(List<Meetup> meetups, java.util.function.Consumer<List<Long>> action) {
+        List<Long> ids = meetups.stream().map(Meetup::getId).distinct().toList();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE)));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", java.util.Collections.nCopies(count, "?"));
+    }
+
     public Meetup save(Meetup meetup) {
         return insert(meetup);
     }
@@ -111,8 +300,9 @@ public class MeetupRepository {
             "start_date, start_time, end_date, end_time, " +
             "organizer_id, event_address, " +
             "image_url, google_location_url, created_at, " +
-            "is_active, max_participants, contact_info" +
-            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            "is_active, max_participants, contact_info, " +
+            "latitude, longitude, geo_cell, image_hash" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         jdbcTemplate.update(sql,
             meetup.getOrganizerName(),
@@ -126,10 +316,16 @@ public class MeetupRepository {
             meetup.getEventAddress(),
             meetup.getImageUrl(),
             meetup.getGoogleLocationURL(),
-            meetup.getCreatedAt(),
+            // Stored in the same format the row mappers and feed cursors read
+            meetup.getCreatedAt() != null ? DATE_TIME_FORMAT.format(meetup.getCreatedAt()) : null,
             meetup.getIsActive(),
             meetup.getMaxParticipants(),
-            meetup.getContactInfo()
+            meetup.getContactInfo(),
+            meetup.getLatitude(),
+            meetup.getLongitude(),
+            meetup.getLatitude() != null && meetup.getLongitude() != null
+                ? GeoCell.encode(meetup.getLatitude(), meetup.getLongitude()) : null,
+            meetup.getImageUrl() != null ? ImageStorageService.contentHash(meetup.getImageUrl()) : null
         );
 
         // Fetch the last inserted ID (SQLite specific)
@@ -140,9 +336,8 @@ public class MeetupRepository {
         if (meetup.getTags() != null && !meetup.getTags().isEmpty()) {
             String[] tags = meetup.getTags().split("\\s*,\\s*");
             String tagSql = "INSERT OR IGNORE INTO mtp_meetup_tag (meetupId, tag) VALUES (?, ?)";
-            for (String tag : tags) {
-                jdbcTemplate.update(tagSql, id, tag.trim());
-            }
+            jdbcTemplate.batchUpdate(tagSql, Arrays.stream(tags).map(tag -> new Object[]{id, tag.trim()}).toList());
+            tagIndex.add(TagIndex.Domain.MEETUP, Math.toIntExact(id), Arrays.asList(tags));
         }
 
         return meetup;
@@ -153,9 +348,8 @@ public class MeetupRepository {
         deleteMeetupTags(meetupId);
         // Insert new tags
         String sql = "INSERT OR IGNORE INTO mtp_meetup_tag (meetupId, tag) VALUES (?, ?)";
-        for (String tag : tagNames) {
-            jdbcTemplate.update(sql, meetupId, tag);
-        }
+        jdbcTemplate.batchUpdate(sql, tagNames.stream().map(tag -> new Object[]{meetupId, tag}).toList());
+        tagIndex.replace(TagIndex.Domain.MEETUP, Math.toIntExact(meetupId), tagNames);
     }
 
     public Set<String> getMeetupTags(Long meetupId) {
@@ -163,8 +357,20 @@ public class MeetupRepository {
         return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, meetupId));
     }
 
+    /**
+     * Tags of every meetup, keyed by meetup id; loads the in-memory tag index.
+     */
+    public Map<Integer, List<String>> findAllTags() {
+        Map<Integer, List<String>> tags = new HashMap<>();
+        jdbcTemplate.query("SELECT meetupId, tag FROM mtp_meetup_tag", rs -> {
+            tags.computeIfAbsent(rs.getInt("meetupId"), k -> new ArrayList<>()).add(rs.getString("tag"));
+        });
+        return tags;
+    }
+
     public void deleteMeetupTags(Long meetupId) {
         jdbcTemplate.update("DELETE FROM mtp_meetup_tag WHERE meetupId = ?", meetupId);
+        tagIndex.remove(TagIndex.Domain.MEETUP, Math.toIntExact(meetupId));
     }
 
     public void delete(Long id) {
@@ -203,18 +409,19 @@ public class MeetupRepository {
             return findAll();
         }
         String inSql = String.join(",", java.util.Collections.nCopies(tags.size(), "?"));
-        String sql = "SELECT DISTINCT m.* FROM mtp_meetup m " +
-                "JOIN mtp_meetup_tag t ON m.id = t.meetupId " +
-                "WHERE t.tag IN (" + inSql + ") AND m.is_active = true";
-        return jdbcTemplate.query(sql, tags.toArray(), meetupRowMapper);
+        // IN (subquery) instead of DISTINCT over a join, so no row is compared column by column
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup " +
+                "WHERE id IN (SELECT meetupId FROM mtp_meetup_tag WHERE tag IN (" + inSql + ")) AND is_active = true";
+        return queryWithChildren(sql, tags.toArray());
     }
 
     public List<Meetup> findAllPaginated(int limit, int offset) {
-        String sql = "SELECT id, organizer_name, title, description, start_date, start_time, end_date, end_time, organizer_id, event_address, image_url, latitude, longitude, created_at, max_participants, contact_info, google_location_url, is_active FROM mtp_meetup WHERE is_active = true ORDER BY created_at DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE is_active = true ORDER BY created_at DESC LIMIT ? OFFSET ?";
         long start = System.currentTimeMillis();
         List<Meetup> result = jdbcTemplate.query(sql, meetupRowMapper, limit, offset);
         long end = System.currentTimeMillis();
         QueryLogger.log(sql, end - start);
+        attachChildren(result);
         return result;
     }
 
@@ -228,13 +435,13 @@ public class MeetupRepository {
     }
 
     public List<Meetup> findAllWithinBoundingBox(double userLat, double userLon, double latDelta, double lonDelta) {
-        String sql = "SELECT * FROM mtp_meetup WHERE is_active = true AND latitude IS NOT NULL AND longitude IS NOT NULL " +
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM mtp_meetup WHERE is_active = true AND latitude IS NOT NULL AND longitude IS NOT NULL " +
                      "AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?";
-        return jdbcTemplate.query(sql, meetupRowMapper,
+        return queryWithChildren(sql,
             userLat - latDelta, userLat + latDelta, userLon - lonDelta, userLon + lonDelta);
     }
 
-    // Lightweight RowMapper for list view (no tags, notes, questions, or image blob)
+    // Lightweight RowMapper for list view (no image blob; tags are attached in one batch by attachTags)
     private static final RowMapper<Meetup> meetupListRowMapper = (rs, rowNum) -> {
         Meetup meetup = new Meetup();
         meetup.setId(rs.getLong("id"));
@@ -285,9 +492,61 @@ public class MeetupRepository {
         );
         long end = System.currentTimeMillis();
         QueryLogger.log(sql, end - start);
+        attachTags(result);
         return result;
     }
 
+    /**
+     * Keyset variant of {@link #findMeetupsInRadiusPaged}: at most limit meetups strictly after the
+     * cursor (or from the newest when cursor is null), ordered by created_at DESC, id DESC.
+     */
+    public CursorPage<Meetup> findMeetupsInRadiusAfter(double userLat, double userLon, double radiusKm, FeedCursor after, int limit) {
+        double latDelta = radiusKm / 111.0;
+        double lonDelta = radiusKm / (111.0 * Math.cos(Math.toRadians(userLat)));
+        String sql = """
+            SELECT id, organizer_name, title, description, start_date, start_time, end_date, end_time, organizer_id, event_address, created_at, is_active, max_participants, contact_info, google_location_url, latitude, longitude
+            FROM mtp_meetup
+            WHERE is_active = true
+              AND latitude IS NOT NULL AND longitude IS NOT NULL
+              AND latitude BETWEEN ? AND ?
+              AND longitude BETWEEN ? AND ?
+              AND (6371 * acos(
+                cos(radians(?)) * cos(radians(latitude)) *
+                cos(radians(longitude) - radians(?)) +
+                sin(radians(?)) * sin(radians(latitude))
+              )) <= ?
+        """ + (after != null ? "AND " + FeedCursor.afterPredicate("created_at", "id") : "") + """
+            ORDER BY created_at DESC, id DESC
+            LIMIT ?
+        """;
+        List<Object> params = new java.util.ArrayList<>(List.of(
+            userLat - latDelta, userLat + latDelta,
+            userLon - lonDelta, userLon + lonDelta,
+            userLat, userLon, userLat, radiusKm));
+        if (after != null) {
+            params.addAll(List.of(after.afterParams()));
+        }
+        params.add(limit + 1);
+
+        List<String> createdAts = new java.util.ArrayList<>();
+        long start = System.currentTimeMillis();
+        List<Meetup> result = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            createdAts.add(rs.getString("created_at"));
+            return meetupListRowMapper.mapRow(rs, rowNum);
+        }, params.toArray());
+        long end = System.currentTimeMillis();
+        QueryLogger.log(sql, end - start);
+
+        if (result.size() <= limit) {
+            attachTags(result);
+            return new CursorPage<>(result, null);
+        }
+        List<Meetup> page = result.subList(0, limit);
+        attachTags(page);
+        Meetup last = page.get(limit - 1);
+        return new CursorPage<>(page, new FeedCursor(createdAts.get(limit - 1), last.getId()).encode());
+    }
+
     /**
      * Returns the count of meetups within the given radius (km) of the user's location, using bounding box and Haversine filtering in SQL.
      */
@@ -25,8 +25,14 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import com.example.NearMeBKND.util.GoogleMapsUrlProcessor;
 import com.example.NearMeBKND.meetup.model.MeetupDTO;
+import com.example.NearMeBKND.service.ImageVariantService;
+import com.example.NearMeBKND.service.TagIndex;
+import com.example.NearMeBKND.util.CursorPage;
+import com.example.NearMeBKND.util.FeedCursor;
 
 @Service
 public class MeetupService {
@@ -45,6 +51,12 @@ public class MeetupService {
     @Autowired
     private GoogleMapsUrlProcessor googleMapsUrlProcessor;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private TagIndex tagIndex;
+
     public MeetupService(MeetupRepository meetupRepository, 
                         JdbcTemplate jdbcTemplate) {
         this.meetupRepository = meetupRepository;
@@ -89,18 +101,10 @@ public class MeetupService {
             throw new IllegalArgumentException("Invalid user ID");
         }
         Meetup.UserLocation userLocation = getUserLocation(userId);
-        List<Meetup> allMeetups = meetupRepository.findAll();
-        return allMeetups.stream()
-            .filter(meetup -> 
-                meetup.getOrganizerId().equals(userId) || 
-                isWithinAccessRadius(
-                    userLocation.latitude(), 
-                    userLocation.longitude(),
-                    meetup.getLatitude(),
-                    meetup.getLongitude()
-                )
-            )
-            .collect(Collectors.toList());
+        // The user's own meetups are always visible, whatever their distance
+        return meetupRepository.findWithinRadius(
+            userId, userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM
+        );
         } catch (Exception e) {
             logger.error("Error in getAllMeetups: {}", e.getMessage(), e);
             throw e;
@@ -113,19 +117,13 @@ public class MeetupService {
         if (!validateUser(userId)) {
             throw new IllegalArgumentException("Invalid user ID");
         }
-        Meetup.UserLocation userLocation = getUserLocation(userId);
-        List<Meetup> organizerMeetups = meetupRepository.findByOrganizerId(organizerId);
         if (organizerId.equals(userId)) {
-            return organizerMeetups;
-    }
-        return organizerMeetups.stream()
-            .filter(meetup -> isWithinAccessRadius(
-                userLocation.latitude(),
-                userLocation.longitude(),
-                meetup.getLatitude(),
-                meetup.getLongitude()
-            ))
-            .collect(Collectors.toList());
+            return meetupRepository.findByOrganizerId(organizerId);
+        }
+        Meetup.UserLocation userLocation = getUserLocation(userId);
+        return meetupRepository.findByOrganizerWithinRadius(
+            organizerId, userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM
+        );
         } catch (Exception e) {
             logger.error("Error in getMeetupsByOrganizer: {}", e.getMessage(), e);
             throw e;
@@ -142,6 +140,43 @@ public class MeetupService {
         }
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTagIndex() {
+        try {
+            tagIndex.load(TagIndex.Domain.MEETUP, meetupRepository.findAllTags());
+        } catch (Exception e) {
+            logger.warn("Could not load meetup tag index: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillGeoCells() {
+        try {
+            int updated = meetupRepository.backfillGeoCells();
+            if (updated > 0) {
+                logger.info("Backfilled geo_cell for {} meetups", updated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill meetup geo_cell: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageHashes() {
+        int updated = 0;
+        try {
+            int batch;
+            while ((batch = meetupRepository.backfillImageHashes(50)) > 0) {
+                updated += batch;
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill meetup image_hash: {}", e.getMessage());
+        }
+        if (updated > 0) {
+            logger.info("Backfilled image_hash for {} meetups", updated);
+        }
+    }
+
     @Transactional
     public Meetup createMeetup(Meetup meetup) {
         logger.debug("createMeetup called for meetup: {}", meetup);
@@ -164,7 +199,11 @@ public class MeetupService {
         meetup.setCreatedAt(LocalDateTime.now());
         meetup.setIsActive(true);
             // Save meetup and return
-        return meetupRepository.save(meetup);
+        Meetup saved = meetupRepository.save(meetup);
+        if (saved.getImageUrl() != null) {
+            imageVariantService.generateAsync(meetupRepository.findImageHashById(saved.getId()), saved.getImageUrl());
+        }
+        return saved;
         } catch (Exception e) {
             logger.error("Error in createMeetup: {}", e.getMessage(), e);
             throw e;
@@ -292,6 +331,14 @@ public class MeetupService {
             throw new IllegalArgumentException("Invalid user ID");
         }
         Meetup.UserLocation userLocation = getUserLocation(userId);
+        List<String> tagNames = TagIndex.normalize(tags);
+        if (tagIndex.isLoaded(TagIndex.Domain.MEETUP)) {
+            // Tag union in memory, then the spatial query keeps only nearby (or own) tagged meetups
+            return tagNames.isEmpty()
+                ? meetupRepository.findWithinRadius(userId, userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM)
+                : meetupRepository.findWithinRadius(userId, userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM,
+                    tagIndex.matchAny(TagIndex.Domain.MEETUP, tagNames));
+        }
         // Fetch meetups that have any of the tags
         List<Meetup> taggedMeetups = meetupRepository.findMeetupsByTags(tags);
         // Filter by radius
@@ -309,9 +356,11 @@ public class MeetupService {
     }
 
     public byte[] getImageById(Long id) {
-        return meetupRepository.findById(id)
-            .map(Meetup::getImageUrl)
-            .orElse(null);
+        return meetupRepository.findImageById(id);
+    }
+
+    public String getImageHashById(Long id) {
+        return meetupRepository.findImageHashById(id);
     }
 
     public List<MeetupDTO> findAllPaginated(int limit, int offset, String userId) {
@@ -323,29 +372,48 @@ public class MeetupService {
             userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM, limit, offset
         );
         // Map to DTOs without fetching notes/questions for each meetup
-        return meetups.stream().map(m -> {
-            MeetupDTO dto = new MeetupDTO();
-            dto.setId(m.getId());
-            dto.setOrganizerName(m.getOrganizerName());
-            dto.setTitle(m.getTitle());
-            dto.setTags(m.getTags());
-            dto.setDescription(m.getDescription());
-            dto.setStartDate(m.getStartDate());
-            dto.setStartTime(m.getStartTime());
-            dto.setEndDate(m.getEndDate());
-            dto.setEndTime(m.getEndTime());
-            dto.setOrganizerId(m.getOrganizerId());
-            dto.setEventAddress(m.getEventAddress());
-            dto.setImageUrl("/api/meetups/" + m.getId() + "/image");
-            dto.setCreatedAt(m.getCreatedAt());
-            dto.setIsActive(m.getIsActive());
-            dto.setMaxParticipants(m.getMaxParticipants());
-            dto.setContactInfo(m.getContactInfo());
-            dto.setGoogleLocationURL(m.getGoogleLocationURL());
-            dto.setNotes(null);
-            dto.setQuestions(null);
-            return dto;
-        }).collect(Collectors.toList());
+        return meetups.stream().map(this::toListDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Cursor-paginated variant of {@link #findAllPaginated}; pass a blank cursor for the first page.
+     */
+    public CursorPage<MeetupDTO> findInRadiusAfter(String cursor, int limit, String userId) {
+        if (!validateUser(userId)) {
+            throw new IllegalArgumentException("Invalid user ID");
+        }
+        Meetup.UserLocation userLocation = getUserLocation(userId);
+        CursorPage<Meetup> page = meetupRepository.findMeetupsInRadiusAfter(
+            userLocation.latitude(), userLocation.longitude(), ACCESS_RADIUS_KM, FeedCursor.decode(cursor), limit
+        );
+        return new CursorPage<>(
+            page.items().stream().map(this::toListDTO).collect(Collectors.toList()),
+            page.nextCursor()
+        );
+    }
+
+    private MeetupDTO toListDTO(Meetup m) {
+        MeetupDTO dto = new MeetupDTO();
+        dto.setId(m.getId());
+        dto.setOrganizerName(m.getOrganizerName());
+        dto.setTitle(m.getTitle());
+        dto.setTags(m.getTags());
+        dto.setDescription(m.getDescription());
+        dto.setStartDate(m.getStartDate());
+        dto.setStartTime(m.getStartTime());
+        dto.setEndDate(m.getEndDate());
+        dto.setEndTime(m.getEndTime());
+        dto.setOrganizerId(m.getOrganizerId());
+        dto.setEventAddress(m.getEventAddress());
+        dto.setImageUrl("/api/meetups/" + m.getId() + "/image");
+        dto.setCreatedAt(m.getCreatedAt());
+        dto.setIsActive(m.getIsActive());
+        dto.setMaxParticipants(m.getMaxParticipants());
+        dto.setContactInfo(m.getContactInfo());
+        dto.setGoogleLocationURL(m.getGoogleLocationURL());
+        dto.setNotes(null);
+        dto.setQuestions(null);
+        return dto;
     }
 
     public int countAllActiveMeetups() {
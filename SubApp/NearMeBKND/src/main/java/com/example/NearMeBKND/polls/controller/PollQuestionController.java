@@ -4,12 +4,15 @@ import com.example.NearMeBKND.polls.model.CreatePollCollectionRequest;
 import com.example.NearMeBKND.polls.model.PaginatedResponse;
 import com.example.NearMeBKND.polls.model.VoteRequest;
 import com.example.NearMeBKND.polls.service.PollCollectionService;
+import com.example.NearMeBKND.polls.service.PollResultsBroadcaster;
 import com.example.NearMeBKND.polls.service.PollVoteService;
 import com.example.NearMeBKND.nearme.repository.UserLocationRepository;
 import com.example.NearMeBKND.nearme.model.UserLocation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
 
@@ -24,6 +27,8 @@ public class PollQuestionController {
     private PollVoteService pollVoteService;
     @Autowired
     private UserLocationRepository userLocationRepository;
+    @Autowired
+    private PollResultsBroadcaster pollResultsBroadcaster;
 
     private ResponseEntity<?> validateUserAndGetLocation(String userId) {
         Optional<UserLocation> userLocationOpt = userLocationRepository.findByUserId(userId);
@@ -63,7 +68,8 @@ public class PollQuestionController {
     @GetMapping("/collection")
     public ResponseEntity<?> getPollCollections(
             @RequestHeader("X-User-ID") String userId,
-            @RequestParam(defaultValue = "0") int page) {
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor) {
         // Validate user
         ResponseEntity<?> validationResponse = validateUserAndGetLocation(userId);
         if (validationResponse != null) {
@@ -71,6 +77,25 @@ public class PollQuestionController {
         }
 
         UserLocation userLocation = userLocationRepository.findByUserId(userId).get();
+        if (cursor != null) {
+            // Cursor mode: pass cursor= (empty) for the first page, then each response's nextCursor
+            try {
+                return ResponseEntity.ok(pollCollectionService.getPollCollectionsAfter(
+                    userId,
+                    userLocation.getLatitude(),
+                    userLocation.getLongitude(),
+                    cursor,
+                    DEFAULT_PAGE_SIZE
+                ));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(
+                    java.util.Map.of(
+                        "error", "Bad Request",
+                        "message", e.getMessage()
+                    )
+                );
+            }
+        }
         return ResponseEntity.ok(pollCollectionService.getPaginatedPollCollections(
             userId,
             userLocation.getLatitude(),
@@ -119,6 +144,22 @@ public class PollQuestionController {
         }
     }
 
+    /**
+     * Live results: a "snapshot" event with the same body as /results, then "tally" events carrying
+     * the options whose counts changed, at most one per 250 ms.
+     */
+    @GetMapping(value = "/question/{questionId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuestionResults(
+            @RequestHeader("X-User-ID") String userId,
+            @PathVariable int questionId) {
+        // Same access checks as /results; refusals arrive as a single "error" event
+        java.util.Map<String, Object> snapshot = pollVoteService.getQuestionResults(userId, questionId);
+        if (!(Boolean) snapshot.get("success")) {
+            return pollResultsBroadcaster.reject(snapshot);
+        }
+        return pollResultsBroadcaster.subscribe(questionId, snapshot);
+    }
+
     @GetMapping("/my-votes")
     public ResponseEntity<?> getAllUserVotes(
             @RequestHeader("X-User-ID") String userId) {
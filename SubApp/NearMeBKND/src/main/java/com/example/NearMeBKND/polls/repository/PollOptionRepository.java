@@ -3,28 +3,24 @@ package com.example.NearMeBKND.polls.repository;
 import com.example.NearMeBKND.polls.model.PollOption;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.Statement;
+import java.util.List;
 
 @Repository
 public class PollOptionRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    public int insertPollOption(PollOption option) {
+    /**
+     * Inserts the options of every question in one JDBC batch.
+     */
+    public void insertPollOptions(List<PollOption> options) {
         String sql = "INSERT INTO poll_options (question_id, option_text) VALUES (?, ?)";
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        jdbcTemplate.batchUpdate(sql, options, options.size(), (ps, option) -> {
             ps.setInt(1, option.getQuestionId());
             ps.setString(2, option.getOptionText());
-            return ps;
-        }, keyHolder);
-        return keyHolder.getKey().intValue();
+        });
     }
 
     public void deleteByQuestionId(int questionId) {
@@ -3,30 +3,31 @@ package com.example.NearMeBKND.polls.repository;
 import com.example.NearMeBKND.polls.model.PollQuestion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.Statement;
+import java.util.List;
 
 @Repository
 public class PollQuestionRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    public int insertPollQuestion(PollQuestion question) {
+    /**
+     * Inserts all questions of a new collection in one JDBC batch and returns their ids in the
+     * same order. Must run in the caller's transaction: rowids are read back by collection, and
+     * within one write transaction they are assigned in insertion order.
+     */
+    public List<Integer> insertPollQuestions(int collectionId, List<PollQuestion> questions) {
         String sql = "INSERT INTO poll_questions (question_text, selection_limit, selection_mode, collection_id) VALUES (?, ?, ?, ?)";
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        jdbcTemplate.batchUpdate(sql, questions, questions.size(), (ps, question) -> {
             ps.setString(1, question.getQuestionText());
             ps.setInt(2, question.getSelectionLimit());
             ps.setString(3, question.getSelectionMode());
-            ps.setInt(4, question.getCollectionId());
-            return ps;
-        }, keyHolder);
-        return keyHolder.getKey().intValue();
+            ps.setInt(4, collectionId);
+        });
+        // sqlite-jdbc only reports the last generated key of a batch, so read the ids back
+        return jdbcTemplate.queryForList(
+            "SELECT question_id FROM poll_questions WHERE collection_id = ? ORDER BY question_id", Integer.class, collectionId);
     }
 
     public void deleteByCollectionId(int collectionId) {
@@ -2,13 +2,18 @@ package com.example.NearMeBKND.polls.repository;
 
 import com.example.NearMeBKND.polls.model.PollVote;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class PollVoteRepository {
@@ -42,6 +47,51 @@ public class PollVoteRepository {
         );
     }
     
+    /**
+     * Inserts one vote row per option in a single JDBC batch. A UNIQUE(user_id, question_id, option_id)
+     * violation, i.e. a concurrent duplicate submission, is reported as a {@link DuplicateKeyException}.
+     */
+    public void insertVotes(String userId, int questionId, List<Integer> optionIds, String createdAt) {
+        String sql = "INSERT INTO poll_votes (user_id, question_id, option_id, created_at) VALUES (?, ?, ?, ?)";
+        try {
+            jdbcTemplate.batchUpdate(sql, optionIds, optionIds.size(), (ps, optionId) -> {
+                ps.setString(1, userId);
+                ps.setInt(2, questionId);
+                ps.setInt(3, optionId);
+                ps.setString(4, createdAt);
+            });
+        } catch (DataAccessException e) {
+            // sqlite-jdbc reports no SQLState, so Spring leaves constraint errors uncategorized
+            if (e.getMostSpecificCause() instanceof SQLiteException sqlite
+                    && sqlite.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE) {
+                throw new DuplicateKeyException("User " + userId + " already voted on question " + questionId, e);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Everything voteOnQuestion validates against, in one read: the question and its collection's
+     * owner and location, the voter's location (null columns if unset), the question's option ids
+     * as a comma-separated list, and whether the voter already voted. Null if the question does
+     * not exist.
+     */
+    public Map<String, Object> findVoteContext(String userId, int questionId) {
+        String sql = """
+            SELECT pq.question_text AS questionText, pq.selection_limit AS selectionLimit,
+                   pc.user_id AS collectionOwnerId, pc.latitude AS collectionLatitude, pc.longitude AS collectionLongitude,
+                   ul.latitude AS userLatitude, ul.longitude AS userLongitude,
+                   (SELECT group_concat(po.option_id) FROM poll_options po WHERE po.question_id = pq.question_id) AS optionIds,
+                   EXISTS (SELECT 1 FROM poll_votes pv WHERE pv.user_id = ? AND pv.question_id = pq.question_id) AS hasVoted
+            FROM poll_questions pq
+            LEFT JOIN poll_collection pc ON pc.collection_id = pq.collection_id
+            LEFT JOIN user_locations ul ON ul.user_id = ?
+            WHERE pq.question_id = ?
+        """;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, userId, userId, questionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
     public List<PollVote> findVotesByQuestionId(int questionId) {
         String sql = "SELECT * FROM poll_votes WHERE question_id = ?";
         return jdbcTemplate.query(sql, voteRowMapper, questionId);
@@ -59,11 +109,64 @@ public class PollVoteRepository {
     }
     
     public int getVoteCountForOption(int optionId) {
-        String sql = "SELECT COUNT(*) FROM poll_votes WHERE option_id = ?";
+        String sql = "SELECT COALESCE((SELECT vote_count FROM poll_option_tally WHERE option_id = ?), 0)";
         return jdbcTemplate.queryForObject(sql, Integer.class, optionId);
     }
     
+    /**
+     * Adds one vote to each option's tally. Call in the same transaction as the vote inserts.
+     */
+    public void incrementTallies(int questionId, List<Integer> optionIds) {
+        String sql = """
+            INSERT INTO poll_option_tally (option_id, question_id, vote_count) VALUES (?, ?, 1)
+            ON CONFLICT(option_id) DO UPDATE SET vote_count = vote_count + 1
+        """;
+        jdbcTemplate.batchUpdate(sql, optionIds, optionIds.size(), (ps, optionId) -> {
+            ps.setInt(1, optionId);
+            ps.setInt(2, questionId);
+        });
+    }
+    
+    /**
+     * Options of the question in id order with their tallied vote_count; O(options), no scan of poll_votes.
+     */
+    public List<Map<String, Object>> findOptionTallies(int questionId) {
+        String sql = """
+            SELECT po.option_id, po.option_text, COALESCE(t.vote_count, 0) AS vote_count
+            FROM poll_options po
+            LEFT JOIN poll_option_tally t ON t.option_id = po.option_id
+            WHERE po.question_id = ?
+            ORDER BY po.option_id
+        """;
+        return jdbcTemplate.queryForList(sql, questionId);
+    }
+    
+    /**
+     * Recomputes every tally from poll_votes; run inside a transaction.
+     */
+    public int rebuildTallies() {
+        jdbcTemplate.update("DELETE FROM poll_option_tally");
+        return jdbcTemplate.update("""
+            INSERT INTO poll_option_tally (option_id, question_id, vote_count)
+            SELECT option_id, MIN(question_id), COUNT(*) FROM poll_votes GROUP BY option_id
+        """);
+    }
+    
+    public void deleteTalliesByQuestionId(int questionId) {
+        jdbcTemplate.update("DELETE FROM poll_option_tally WHERE question_id = ?", questionId);
+    }
+    
+    public void deleteTalliesByCollectionId(int collectionId) {
+        jdbcTemplate.update(
+            "DELETE FROM poll_option_tally WHERE question_id IN (SELECT question_id FROM poll_questions WHERE collection_id = ?)",
+            collectionId);
+    }
+    
     public void deleteVotesByUserIdAndQuestionId(String userId, int questionId) {
+        jdbcTemplate.update("""
+            UPDATE poll_option_tally SET vote_count = vote_count - 1
+            WHERE option_id IN (SELECT option_id FROM poll_votes WHERE user_id = ? AND question_id = ?)
+        """, userId, questionId);
         String sql = "DELETE FROM poll_votes WHERE user_id = ? AND question_id = ?";
         jdbcTemplate.update(sql, userId, questionId);
     }
@@ -7,6 +7,9 @@ import com.example.NearMeBKND.polls.model.PollQuestion;
 import com.example.NearMeBKND.polls.repository.PollQuestionRepository;
 import com.example.NearMeBKND.polls.repository.PollOptionRepository;
 import com.example.NearMeBKND.polls.repository.PollCollectionRepository;
+import com.example.NearMeBKND.polls.repository.PollVoteRepository;
+import com.example.NearMeBKND.util.CursorPage;
+import com.example.NearMeBKND.util.FeedCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -36,6 +39,8 @@ public class PollCollectionService {
     private JdbcTemplate jdbcTemplate;
     @Autowired
     private PollCollectionRepository pollCollectionRepository;
+    @Autowired
+    private PollVoteRepository pollVoteRepository;
 
     @Transactional
     public int createPollCollection(String userId, double latitude, double longitude, CreatePollCollectionRequest request) {
@@ -49,26 +54,38 @@ public class PollCollectionService {
             longitude
         );
 
-        // 2. Insert each question (max 5)
+        // 2. Insert the questions (max 5) in one batch
         List<CreatePollCollectionRequest.CreatePollQuestionRequest> questions = request.getQuestions();
         if (questions.size() > 5) {
             throw new IllegalArgumentException("Cannot create more than 5 questions per collection");
         }
+        List<PollQuestion> pollQuestions = new ArrayList<>(questions.size());
         for (CreatePollCollectionRequest.CreatePollQuestionRequest q : questions) {
             PollQuestion question = new PollQuestion();
             question.setQuestionText(q.getQuestionText());
             question.setSelectionLimit(q.getSelectionLimit());
             question.setSelectionMode(q.getSelectionLimit() == 1 ? "SINGLE" : "MULTIPLE");
             question.setCollectionId(collectionId);
-            int questionId = pollQuestionRepository.insertPollQuestion(question);
-            // Insert options
-            for (String optionText : q.getPollOptions()) {
+            pollQuestions.add(question);
+        }
+        if (pollQuestions.isEmpty()) {
+            return collectionId;
+        }
+        List<Integer> questionIds = pollQuestionRepository.insertPollQuestions(collectionId, pollQuestions);
+
+        // 3. Insert the options of every question in one batch
+        List<PollOption> options = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            for (String optionText : questions.get(i).getPollOptions()) {
                 PollOption option = new PollOption();
-                option.setQuestionId(questionId);
+                option.setQuestionId(questionIds.get(i));
                 option.setOptionText(optionText);
-                pollOptionRepository.insertPollOption(option);
+                options.add(option);
             }
         }
+        if (!options.isEmpty()) {
+            pollOptionRepository.insertPollOptions(options);
+        }
         return collectionId;
     }
 
@@ -132,18 +149,79 @@ public class PollCollectionService {
                 userLat, userLon, userLat, DEFAULT_RADIUS_KM,  // For radius check
                 size, offset  // For pagination
             }, 
-            (rs, rowNum) -> {
-                Map<String, Object> map = new LinkedHashMap<>();
-                map.put("collectionId", rs.getInt("collection_id"));
-                map.put("collectionTitle", rs.getString("collection_title"));
-                map.put("createdAt", rs.getString("created_at"));
-                map.put("userId", rs.getString("user_id"));
-                map.put("latitude", rs.getDouble("latitude"));
-                map.put("longitude", rs.getDouble("longitude"));
-                map.put("distance", rs.getDouble("distance"));
-                return map;
-            });
+            COLLECTION_SUMMARY_MAPPER);
+        attachQuestionTexts(collections);
 
+        return new PaginatedResponse(collections, page, size, totalElements);
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getPaginatedPollCollections}. Pages are addressed by an
+     * opaque cursor instead of an offset and no COUNT(*) is run, so every page costs the same.
+     */
+    public CursorPage<Map<String, Object>> getPollCollectionsAfter(String userId, double userLat, double userLon, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        double latDelta = DEFAULT_RADIUS_KM / EARTH_RADIUS_KM * (180.0 / Math.PI);
+        double lonDelta = DEFAULT_RADIUS_KM / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(userLat))) * (180.0 / Math.PI);
+
+        String sql = """
+            SELECT pc.collection_id, pc.collection_title, pc.created_at, pc.user_id,
+                   pc.latitude, pc.longitude,
+                   (
+                       6371 * acos(
+                           cos(radians(?)) * cos(radians(pc.latitude)) * 
+                           cos(radians(pc.longitude) - radians(?)) + 
+                           sin(radians(?)) * sin(radians(pc.latitude))
+                       )
+                   ) as distance
+            FROM poll_collection pc
+            WHERE pc.latitude BETWEEN ? AND ?
+            AND pc.longitude BETWEEN ? AND ?
+            AND (
+                6371 * acos(
+                    cos(radians(?)) * cos(radians(pc.latitude)) * 
+                    cos(radians(pc.longitude) - radians(?)) + 
+                    sin(radians(?)) * sin(radians(pc.latitude))
+                )
+            ) <= ?
+        """ + (after != null ? "AND " + FeedCursor.afterPredicate("pc.created_at", "pc.collection_id") : "") + """
+            ORDER BY pc.created_at DESC, pc.collection_id DESC
+            LIMIT ?
+        """;
+        List<Object> params = new ArrayList<>(List.of(
+            userLat, userLon, userLat,
+            userLat - latDelta, userLat + latDelta, userLon - lonDelta, userLon + lonDelta,
+            userLat, userLon, userLat, DEFAULT_RADIUS_KM));
+        if (after != null) {
+            params.addAll(List.of(after.afterParams()));
+        }
+        params.add(size + 1);
+
+        List<Map<String, Object>> collections = jdbcTemplate.query(sql, COLLECTION_SUMMARY_MAPPER, params.toArray());
+        String nextCursor = null;
+        if (collections.size() > size) {
+            collections = new ArrayList<>(collections.subList(0, size));
+            Map<String, Object> last = collections.get(size - 1);
+            nextCursor = new FeedCursor((String) last.get("createdAt"), (int) last.get("collectionId")).encode();
+        }
+        attachQuestionTexts(collections);
+        return new CursorPage<>(collections, nextCursor);
+    }
+
+    private static final RowMapper<Map<String, Object>> COLLECTION_SUMMARY_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("collectionId", rs.getInt("collection_id"));
+        map.put("collectionTitle", rs.getString("collection_title"));
+        map.put("createdAt", rs.getString("created_at"));
+        map.put("userId", rs.getString("user_id"));
+        map.put("latitude", rs.getDouble("latitude"));
+        map.put("longitude", rs.getDouble("longitude"));
+        map.put("distance", rs.getDouble("distance"));
+        return map;
+    };
+
+    private void attachQuestionTexts(List<Map<String, Object>> collections) {
         // For each collection, get all question_texts
         for (Map<String, Object> collection : collections) {
             int collectionId = (int) collection.get("collectionId");
@@ -154,8 +232,6 @@ public class PollCollectionService {
             );
             collection.put("questions", questions);
         }
-
-        return new PaginatedResponse(collections, page, size, totalElements);
     }
 
     public boolean isUserCollectionOwner(String userId, int id, boolean isQuestionId) {
@@ -194,8 +270,9 @@ public class PollCollectionService {
             if (collectionId != null) {
                 System.out.println("[DEBUG] Found collectionId: " + collectionId + " for questionId: " + questionId);
                 
-                // 1. Delete all votes for this question first
+                // 1. Delete all votes for this question first, with their tallies
                 try {
+                    pollVoteRepository.deleteTalliesByQuestionId(questionId);
                     String deleteVotesSql = "DELETE FROM poll_votes WHERE question_id = ?";
                     int deletedVotes = jdbcTemplate.update(deleteVotesSql, questionId);
                     System.out.println("[DEBUG] Deleted " + deletedVotes + " votes for questionId: " + questionId);
@@ -256,8 +333,9 @@ public class PollCollectionService {
         
         try {
             // Delete in the correct order to respect foreign key constraints:
-            // 1. Delete all votes for all questions in this collection
+            // 1. Delete all votes (and their tallies) for all questions in this collection
             try {
+                pollVoteRepository.deleteTalliesByCollectionId(collectionId);
                 String deleteVotesSql = """
                     DELETE FROM poll_votes 
                     WHERE question_id IN (
@@ -0,0 +1,253 @@
+package com.example.NearMeBKND.polls.service;
+
+import com.example.NearMeBKND.polls.repository.PollVoteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live poll results over Server-Sent Events. Votes only mark their question dirty; a single
+ * flusher reads the maintained tallies of each dirty question at most once per flush interval and
+ * pushes the options whose counts changed, so a burst of votes costs subscribers one event. Every
+ * subscriber has a bounded queue drained on a small sender pool; a client that falls a full queue
+ * behind is disconnected and resynchronises from the snapshot sent on reconnect.
+ */
+@Service
+public class PollResultsBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(PollResultsBroadcaster.class);
+
+    private final PollVoteRepository pollVoteRepository;
+    private final long streamTimeoutMs;
+    private final int queueCapacity;
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders;
+
+    public PollResultsBroadcaster(PollVoteRepository pollVoteRepository,
+                                  @Value("${polls.results.flush-interval-ms:250}") long flushIntervalMs,
+                                  @Value("${polls.results.stream-timeout-ms:1800000}") long streamTimeoutMs,
+                                  @Value("${polls.results.subscriber-queue-capacity:16}") int queueCapacity,
+                                  @Value("${polls.results.sender-threads:2}") int senderThreads) {
+        this.pollVoteRepository = pollVoteRepository;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.queueCapacity = queueCapacity;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("poll-results-flush", new AtomicInteger()));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("poll-results-send", new AtomicInteger()));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for the question whose first event is the given results snapshot, as returned
+     * by {@link PollVoteService#getQuestionResults}.
+     */
+    @SuppressWarnings("unchecked")
+    public SseEmitter subscribe(int questionId, Map<String, Object> snapshot) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        // Registered inside compute so a concurrent last unsubscribe cannot drop the channel under us
+        channels.compute(questionId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel();
+            target.seed((List<Map<String, Object>>) snapshot.get("options"));
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        Runnable unsubscribe = () -> unsubscribe(questionId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        subscriber.offer(SseEmitter.event().name("snapshot").data(snapshot));
+        // Catch votes committed between reading the snapshot and registering the channel
+        dirty.add(questionId);
+        return emitter;
+    }
+
+    /**
+     * A stream that only reports why the subscription was refused.
+     */
+    public SseEmitter reject(Map<String, Object> error) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            emitter.send(SseEmitter.event().name("error").data(error));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Marks the question for the next flush once the current transaction commits, so subscribers
+     * never see counts that are rolled back.
+     */
+    public void votesRecorded(int questionId) {
+        if (!channels.containsKey(questionId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(questionId);
+                }
+            });
+        } else {
+            dirty.add(questionId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.emitter.complete()));
+        channels.clear();
+    }
+
+    private void flush() {
+        for (Integer questionId : List.copyOf(dirty)) {
+            dirty.remove(questionId);
+            Channel channel = channels.get(questionId);
+            if (channel == null) {
+                continue;
+            }
+            try {
+                Map<String, Object> update = channel.diff(questionId, pollVoteRepository.findOptionTallies(questionId));
+                if (update != null) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().name("tally").data(update);
+                    channel.subscribers.forEach(subscriber -> subscriber.offer(event));
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to publish results for poll question {}: {}", questionId, e.getMessage());
+            }
+        }
+    }
+
+    private void unsubscribe(int questionId, Subscriber subscriber) {
+        channels.computeIfPresent(questionId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name, AtomicInteger count) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Subscribers of one question and the counts they were last sent.
+     */
+    private static final class Channel {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Map<Integer, Integer> lastCounts = new HashMap<>();
+
+        private synchronized void seed(List<Map<String, Object>> options) {
+            if (options == null) {
+                return;
+            }
+            for (Map<String, Object> option : options) {
+                lastCounts.putIfAbsent(((Number) option.get("option_id")).intValue(), ((Number) option.get("vote_count")).intValue());
+            }
+        }
+
+        /**
+         * Options whose count moved since the last event, or null if none did.
+         */
+        private synchronized Map<String, Object> diff(int questionId, List<Map<String, Object>> options) {
+            List<Map<String, Object>> changed = new ArrayList<>();
+            int totalVotes = 0;
+            for (Map<String, Object> option : options) {
+                int optionId = ((Number) option.get("option_id")).intValue();
+                int count = ((Number) option.get("vote_count")).intValue();
+                totalVotes += count;
+                Integer previous = lastCounts.put(optionId, count);
+                if (previous == null || previous != count) {
+                    changed.add(Map.of("option_id", optionId, "vote_count", count, "delta", count - (previous != null ? previous : 0)));
+                }
+            }
+            if (changed.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> update = new LinkedHashMap<>();
+            update.put("questionId", questionId);
+            update.put("options", changed);
+            update.put("totalVotes", totalVotes);
+            return update;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // Too slow to keep up; the client reconnects and starts from a fresh snapshot
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; onError/onCompletion unsubscribes it
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before draining was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+    }
+}
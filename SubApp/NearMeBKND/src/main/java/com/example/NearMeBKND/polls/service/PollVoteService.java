@@ -1,27 +1,36 @@
 package com.example.NearMeBKND.polls.service;
 
-import com.example.NearMeBKND.polls.model.PollVote;
 import com.example.NearMeBKND.polls.model.VoteRequest;
 import com.example.NearMeBKND.polls.repository.PollVoteRepository;
 import com.example.NearMeBKND.polls.repository.PollQuestionRepository;
 import com.example.NearMeBKND.polls.repository.PollOptionRepository;
 import com.example.NearMeBKND.nearme.repository.UserLocationRepository;
 import com.example.NearMeBKND.nearme.model.UserLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.ArrayList;
 import java.util.Optional;
 
 @Service
 public class PollVoteService {
+    private static final Logger logger = LoggerFactory.getLogger(PollVoteService.class);
     
     private static final double EARTH_RADIUS_KM = 6371.0;
     private static final double DEFAULT_RADIUS_KM = 10.0; // Fixed 10km radius
@@ -41,13 +50,17 @@ public class PollVoteService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
     
+    @Autowired
+    private PollResultsBroadcaster pollResultsBroadcaster;
+    
     @Transactional
     public Map<String, Object> voteOnQuestion(String userId, int questionId, VoteRequest voteRequest) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // 1. Validate question exists
-            if (!questionExists(questionId)) {
+            // 1. Load the question, its collection, the user's location and any existing vote in one read
+            Map<String, Object> questionDetails = pollVoteRepository.findVoteContext(userId, questionId);
+            if (questionDetails == null) {
                 response.put("success", false);
                 response.put("errorCode", "QUESTION_NOT_FOUND");
                 response.put("message", "Poll question not found. Please check the question ID and try again.");
@@ -56,9 +69,10 @@ public class PollVoteService {
                 return response;
             }
             
-            // 2. Get user location for radius validation
-            Optional<UserLocation> userLocationOpt = userLocationRepository.findByUserId(userId);
-            if (userLocationOpt.isEmpty()) {
+            // 2. Check the user location for radius validation
+            Object userLatObj = questionDetails.get("userLatitude");
+            Object userLonObj = questionDetails.get("userLongitude");
+            if (userLatObj == null || userLonObj == null) {
                 response.put("success", false);
                 response.put("errorCode", "USER_LOCATION_MISSING");
                 response.put("message", "Your location is not set. Please update your location to vote on local polls.");
@@ -67,12 +81,10 @@ public class PollVoteService {
                 return response;
             }
             
-            UserLocation userLocation = userLocationOpt.get();
-            double userLat = userLocation.getLatitude();
-            double userLon = userLocation.getLongitude();
+            double userLat = ((Number) userLatObj).doubleValue();
+            double userLon = ((Number) userLonObj).doubleValue();
             
-            // 3. Get question details with collection location
-            Map<String, Object> questionDetails = getQuestionDetailsWithLocation(questionId);
+            // 3. Check question details with collection location
             Object selectionLimitObj = questionDetails.get("selectionLimit");
             Object questionOwnerIdObj = questionDetails.get("collectionOwnerId");
             Object collectionLatObj = questionDetails.get("collectionLatitude");
@@ -119,8 +131,9 @@ public class PollVoteService {
                 return response;
             }
             
-            // 6. Validate option count
-            List<Integer> optionIds = voteRequest.getOptionIds();
+            // 6. Validate option count (a repeated option id counts once)
+            List<Integer> optionIds = voteRequest.getOptionIds() == null
+                ? null : new ArrayList<>(new LinkedHashSet<>(voteRequest.getOptionIds()));
             if (optionIds == null || optionIds.isEmpty()) {
                 response.put("success", false);
                 response.put("errorCode", "NO_OPTIONS_SELECTED");
@@ -145,7 +158,7 @@ public class PollVoteService {
             }
             
             // 7. Validate all options belong to the question
-            if (!allOptionsBelongToQuestion(questionId, optionIds)) {
+            if (!allOptionsBelongToQuestion((String) questionDetails.get("optionIds"), optionIds)) {
                 response.put("success", false);
                 response.put("errorCode", "INVALID_OPTIONS");
                 response.put("message", "One or more selected options are not valid for this question.");
@@ -157,29 +170,20 @@ public class PollVoteService {
             }
             
             // 8. Check if user has already voted on this question
-            if (pollVoteRepository.hasUserVotedOnQuestion(userId, questionId)) {
-                response.put("success", false);
-                response.put("errorCode", "ALREADY_VOTED");
-                response.put("message", "You have already voted on this question. Each user can only vote once per question.");
-                response.put("questionId", questionId);
-                response.put("questionText", questionText);
-                response.put("userId", userId);
-                response.put("suggestion", "You can view the current results or check your previous vote.");
-                return response;
+            if (((Number) questionDetails.get("hasVoted")).intValue() != 0) {
+                return alreadyVoted(response, userId, questionId, questionText);
             }
             
-            // 9. Record votes
+            // 9. Record votes in one batch; UNIQUE(user_id, question_id, option_id) catches a concurrent duplicate
             String createdAt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            
-            for (Integer optionId : optionIds) {
-                PollVote vote = new PollVote();
-                vote.setUserId(userId);
-                vote.setQuestionId(questionId);
-                vote.setOptionId(optionId);
-                vote.setCreatedAt(createdAt);
-                
-                pollVoteRepository.insertVote(vote);
+            try {
+                pollVoteRepository.insertVotes(userId, questionId, optionIds, createdAt);
+            } catch (DuplicateKeyException e) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return alreadyVoted(response, userId, questionId, questionText);
             }
+            pollVoteRepository.incrementTallies(questionId, optionIds);
+            pollResultsBroadcaster.votesRecorded(questionId);
             
             response.put("success", true);
             response.put("message", "Your vote has been recorded successfully!");
@@ -197,6 +201,8 @@ public class PollVoteService {
             response.put("questionId", questionId);
             response.put("userId", userId);
             response.put("suggestion", "If the problem persists, please contact support.");
+            // The error is answered, not rethrown, so undo any vote rows and tallies already written
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             // Log the actual error for debugging
             System.err.println("Error in voteOnQuestion: " + e.getMessage());
             e.printStackTrace();
@@ -205,6 +211,18 @@ public class PollVoteService {
         return response;
     }
     
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildTallies() {
+        try {
+            int options = pollVoteRepository.rebuildTallies();
+            logger.info("Rebuilt vote tallies for {} poll options", options);
+        } catch (Exception e) {
+            logger.warn("Could not rebuild poll vote tallies: {}", e.getMessage());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+    
     public Map<String, Object> getQuestionResults(String userId, int questionId) {
         Map<String, Object> response = new HashMap<>();
         
@@ -273,22 +291,8 @@ public class PollVoteService {
                 }
             }
             
-            // 5. Get all options for the question with vote counts
-            String sql = """
-                SELECT po.option_id, po.option_text, 
-                       COALESCE(vote_counts.vote_count, 0) as vote_count
-                FROM poll_options po
-                LEFT JOIN (
-                    SELECT option_id, COUNT(*) as vote_count 
-                    FROM poll_votes 
-                    WHERE question_id = ? 
-                    GROUP BY option_id
-                ) vote_counts ON po.option_id = vote_counts.option_id
-                WHERE po.question_id = ?
-                ORDER BY po.option_id
-            """;
-            
-            List<Map<String, Object>> options = jdbcTemplate.queryForList(sql, questionId, questionId);
+            // 5. Get all options for the question with their maintained vote tallies
+            List<Map<String, Object>> options = pollVoteRepository.findOptionTallies(questionId);
             
             response.put("success", true);
             response.put("questionId", questionId);
@@ -570,15 +574,26 @@ public class PollVoteService {
         return EARTH_RADIUS_KM * c;
     }
     
-    private boolean allOptionsBelongToQuestion(int questionId, List<Integer> optionIds) {
-        if (optionIds == null || optionIds.isEmpty()) {
+    private boolean allOptionsBelongToQuestion(String questionOptionIds, List<Integer> optionIds) {
+        if (optionIds == null || optionIds.isEmpty() || questionOptionIds == null) {
             return false;
         }
         
-        String sql = "SELECT COUNT(*) FROM poll_options WHERE question_id = ? AND option_id IN (" + 
-                    String.join(",", optionIds.stream().map(String::valueOf).toList()) + ")";
-        
-        int count = jdbcTemplate.queryForObject(sql, Integer.class, questionId);
-        return count == optionIds.size();
+        Set<Integer> valid = new HashSet<>();
+        for (String id : questionOptionIds.split(",")) {
+            valid.add(Integer.parseInt(id.trim()));
+        }
+        return valid.containsAll(optionIds);
+    }
+    
+    private Map<String, Object> alreadyVoted(Map<String, Object> response, String userId, int questionId, String questionText) {
+        response.put("success", false);
+        response.put("errorCode", "ALREADY_VOTED");
+        response.put("message", "You have already voted on this question. Each user can only vote once per question.");
+        response.put("questionId", questionId);
+        response.put("questionText", questionText);
+        response.put("userId", userId);
+        response.put("suggestion", "You can view the current results or check your previous vote.");
+        return response;
     }
 } 
\ No newline at end of file
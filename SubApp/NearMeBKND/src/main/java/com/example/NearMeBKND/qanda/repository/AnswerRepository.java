@@ -14,7 +14,11 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class AnswerRepository {
@@ -36,6 +40,21 @@ public class AnswerRepository {
         return jdbcTemplate.query(sql, (rs, rowNum) -> mapRowToAnswer(rs), questionId);
     }
 
+    /**
+     * Answers of all the given questions in one query, grouped by question id.
+     */
+    public Map<Long, List<Answer>> findByQuestionIds(List<Long> questionIds) {
+        Map<Long, List<Answer>> answers = new HashMap<>();
+        if (questionIds.isEmpty()) return answers;
+        String inSql = String.join(",", Collections.nCopies(questionIds.size(), "?"));
+        String sql = "SELECT * FROM qna_answers WHERE question_id IN (" + inSql + ") ORDER BY id";
+        jdbcTemplate.query(sql, rs -> {
+            Answer answer = mapRowToAnswer(rs);
+            answers.computeIfAbsent(answer.getQuestionId(), k -> new ArrayList<>()).add(answer);
+        }, questionIds.toArray());
+        return answers;
+    }
+
     public void deleteAnswer(int id) {
         jdbcTemplate.update("DELETE FROM qna_answers WHERE id = ?", id);
     }
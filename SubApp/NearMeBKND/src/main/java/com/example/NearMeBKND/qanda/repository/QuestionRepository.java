@@ -15,6 +15,12 @@ import java.util.List;
 @Repository
 public class QuestionRepository {
 
+    private static final String COLUMNS = "id, user_id, title, description, tags, created_at, latitude, longitude";
+    // Ids of questions carrying every one of the %s tag names; binds the names, then their count
+    private static final String TAGGED_WITH_ALL_SQL =
+            "SELECT qt.qId FROM qna_question_tag qt JOIN qna_tags t ON qt.tagId = t.tagId " +
+            "WHERE t.tagName IN (%s) GROUP BY qt.qId HAVING COUNT(DISTINCT t.tagName) = ?";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -68,9 +74,19 @@ public class QuestionRepository {
     }
 
     public void deleteQuestion(int id) {
+        // Foreign keys are not enforced, so the tag links would otherwise outlive the question
+        jdbcTemplate.update("DELETE FROM qna_question_tag WHERE qId = ?", id);
         jdbcTemplate.update("DELETE FROM qna_questions WHERE id = ?", id);
     }
 
+    /**
+     * Removes tag links left behind by questions deleted before their links were deleted with them,
+     * so a new question that reuses the id does not inherit them.
+     */
+    public int deleteOrphanTagLinks() {
+        return jdbcTemplate.update("DELETE FROM qna_question_tag WHERE qId NOT IN (SELECT id FROM qna_questions)");
+    }
+
     // Multi-tag search (AND logic)
     public List<Question> findByTags(List<String> tags) {
         if (tags == null || tags.isEmpty()) return findAll();
@@ -86,14 +102,105 @@ public class QuestionRepository {
         return jdbcTemplate.query(sql, params.toArray(), this::mapRowToQuestion);
     }
 
+    /**
+     * One page of questions, newest first, without tags, notes or answers; see {@link #attachTagsAndNotes}.
+     */
+    public List<Question> findPage(int limit, int offset) {
+        String sql = "SELECT " + COLUMNS + " FROM qna_questions ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, this::mapRowToQuestion, limit, offset);
+    }
+
+    public int countAll() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM qna_questions", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * One page of the questions tagged with all of the given tags, newest first.
+     */
+    public List<Question> findPageByTags(List<String> tags, int limit, int offset) {
+        String sql = "SELECT " + COLUMNS + " FROM qna_questions WHERE id IN (" + TAGGED_WITH_ALL_SQL.formatted(placeholders(tags.size())) + ") " +
+                "ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+        List<Object> params = new ArrayList<>(tags);
+        params.add(tags.size());
+        params.add(limit);
+        params.add(offset);
+        return jdbcTemplate.query(sql, this::mapRowToQuestion, params.toArray());
+    }
+
+    public int countByTags(List<String> tags) {
+        String sql = "SELECT COUNT(*) FROM (" + TAGGED_WITH_ALL_SQL.formatted(placeholders(tags.size())) + ")";
+        List<Object> params = new ArrayList<>(tags);
+        params.add(tags.size());
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Sets tags, tag list and notes on every question with one query per child table.
+     */
+    public void attachTagsAndNotes(List<Question> questions) {
+        if (questions.isEmpty()) return;
+        List<Long> ids = questions.stream().map(Question::getId).toList();
+        String inSql = placeholders(ids.size());
+
+        Map<Long, List<Tag>> tags = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT qt.qId, t.tagId, t.tagName FROM qna_question_tag qt JOIN qna_tags t ON t.tagId = qt.tagId WHERE qt.qId IN (" + inSql + ")",
+            rs -> {
+                Tag tag = new Tag();
+                tag.setTagId(rs.getInt("tagId"));
+                tag.setTagName(rs.getString("tagName"));
+                tags.computeIfAbsent(rs.getLong("qId"), k -> new ArrayList<>()).add(tag);
+            }, ids.toArray());
+
+        Map<Long, List<String>> notes = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT question_id, note FROM qna_note WHERE question_id IN (" + inSql + ") ORDER BY id",
+            rs -> {
+                notes.computeIfAbsent(rs.getLong("question_id"), k -> new ArrayList<>()).add(rs.getString("note"));
+            }, ids.toArray());
+
+        for (Question question : questions) {
+            List<Tag> questionTags = tags.getOrDefault(question.getId(), new ArrayList<>());
+            question.setTagList(questionTags);
+            question.setTags(questionTags.stream().map(Tag::getTagName).collect(java.util.stream.Collectors.joining(",")));
+            question.setNotes(notes.getOrDefault(question.getId(), new ArrayList<>()));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * The given questions, highest id first, without tags, notes or answers.
+     */
+    public List<Question> findByIdsNewestFirst(List<Integer> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM qna_questions WHERE id IN (" + placeholders(ids.size()) + ") ORDER BY id DESC";
+        return jdbcTemplate.query(sql, this::mapRowToQuestion, ids.toArray());
+    }
+
+    /**
+     * Tag names of every question, keyed by question id; loads the in-memory tag index.
+     */
+    public Map<Integer, List<String>> findAllTagNames() {
+        Map<Integer, List<String>> tags = new HashMap<>();
+        jdbcTemplate.query("SELECT qt.qId, t.tagName FROM qna_question_tag qt " +
+                "JOIN qna_questions q ON q.id = qt.qId " +
+                "JOIN qna_tags t ON t.tagId = qt.tagId", rs -> {
+            tags.computeIfAbsent(rs.getInt("qId"), k -> new ArrayList<>()).add(rs.getString("tagName"));
+        });
+        return tags;
+    }
+
     // Tag association
     public void addTagsToQuestion(int qId, List<Integer> tagIds) {
-        for (Integer tagId : tagIds) {
-            jdbcTemplate.update(
-                "INSERT OR IGNORE INTO qna_question_tag (qId, tagId) VALUES (?, ?)",
-                qId, tagId
-            );
-        }
+        jdbcTemplate.batchUpdate(
+            "INSERT OR IGNORE INTO qna_question_tag (qId, tagId) VALUES (?, ?)",
+            tagIds.stream().map(tagId -> new Object[]{qId, tagId}).toList()
+        );
     }
 
     public List<Tag> findTagsForQuestion(int qId) {
@@ -5,7 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
 public class TagRepository {
@@ -13,16 +16,29 @@ public class TagRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // qna_tags rows are never renamed or deleted, so a name's tagId can be cached for good
+    private final Map<String, Integer> tagIds = new ConcurrentHashMap<>();
+
     public int saveTag(String tagName) {
-        // First try to get existing tag ID
-        try {
-            return getTagId(tagName);
-        } catch (Exception e) {
-            // If tag doesn't exist, insert it
-            String sql = "INSERT OR IGNORE INTO qna_tags (tagName) VALUES (?)";
-            jdbcTemplate.update(sql, tagName);
-            return jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Integer.class);
+        return saveTags(List.of(tagName)).get(0);
+    }
+
+    /**
+     * Returns the tagId of each name, in order, inserting the names not seen before. Known names
+     * cost no query; all unknown ones share one batch insert and one lookup.
+     */
+    public List<Integer> saveTags(List<String> tagNames) {
+        List<String> missing = tagNames.stream().filter(name -> !tagIds.containsKey(name)).distinct().toList();
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT OR IGNORE INTO qna_tags (tagName) VALUES (?)",
+                missing.stream().map(name -> new Object[]{name}).toList());
+            String inSql = String.join(",", Collections.nCopies(missing.size(), "?"));
+            jdbcTemplate.query("SELECT tagId, tagName FROM qna_tags WHERE tagName IN (" + inSql + ")",
+                rs -> {
+                    tagIds.put(rs.getString("tagName"), rs.getInt("tagId"));
+                }, missing.toArray());
         }
+        return tagNames.stream().map(tagIds::get).toList();
     }
 
     public int getTagId(String tagName) {
@@ -9,19 +9,26 @@ package com.example.NearMeBKND.qanda.service;
 
 import com.example.NearMeBKND.qanda.model.Question;
 import com.example.NearMeBKND.qanda.model.Tag;
-// import com.example.submitqanda.model.Answer;
+import com.example.NearMeBKND.qanda.model.Answer;
 import com.example.NearMeBKND.qanda.repository.QuestionRepository;
 import com.example.NearMeBKND.qanda.repository.TagRepository;
 import com.example.NearMeBKND.qanda.repository.AnswerRepository;
+import com.example.NearMeBKND.service.TagIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
+    private static final Logger logger = LoggerFactory.getLogger(QuestionService.class);
 
     @Autowired
     private QuestionRepository questionRepository;
@@ -31,21 +38,20 @@ public class QuestionService {
     private AnswerRepository answerRepository;
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TagIndex tagIndex;
 
     public int addQuestion(Question question, List<String> tagNames) {
         // Save the question first
         int questionId = questionRepository.saveQuestion(question);
         
         if (questionId > 0 && tagNames != null && !tagNames.isEmpty()) {
-            // Save each tag and get its ID
-            List<Integer> tagIds = new ArrayList<>();
-            for (String tagName : tagNames) {
-                int tagId = tagRepository.saveTag(tagName);
-                tagIds.add(tagId);
-            }
+            // Resolve every tag's ID at once, inserting new tags
+            List<Integer> tagIds = tagRepository.saveTags(tagNames);
             
             // Create associations between question and tags
             questionRepository.addTagsToQuestion(questionId, tagIds);
+            tagIndex.add(TagIndex.Domain.QUESTION, questionId, tagNames);
             
             // Update the question's tags field
             question.setTags(tagNames.stream().collect(Collectors.joining(",")));
@@ -55,56 +61,47 @@ public class QuestionService {
     }
 
     public Map<String, Object> getAllQuestions(int page, int size) {
-        List<Question> allQuestions = questionRepository.findAll();
-        int totalQuestions = allQuestions.size();
-        int totalPages = (int) Math.ceil((double) totalQuestions / size);
-        
-        int start = page * size;
-        int end = Math.min(start + size, totalQuestions);
-        
-        List<Question> paginatedQuestions = allQuestions.subList(start, end);
-        
-        for (Question q : paginatedQuestions) {
-            List<Tag> questionTags = questionRepository.findTagsForQuestion(q.getId().intValue());
-            q.setTags(questionTags.stream().map(Tag::getTagName).collect(Collectors.joining(",")));
-            q.setTagList(questionTags);
-            q.setAnswers(answerRepository.findByQuestionId(q.getId().intValue()));
-        }
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("questions", paginatedQuestions);
-        response.put("currentPage", page);
-        response.put("totalPages", totalPages);
-        response.put("totalQuestions", totalQuestions);
-        response.put("pageSize", size);
-        
-        return response;
+        int totalQuestions = questionRepository.countAll();
+        List<Question> paginatedQuestions = questionRepository.findPage(size, page * size);
+        hydrate(paginatedQuestions);
+        return pageResponse(paginatedQuestions, totalQuestions, page, size);
     }
 
     public Map<String, Object> getQuestionsByTags(List<String> tags, int page, int size) {
-        List<Question> allQuestions = questionRepository.findByTags(tags);
-        int totalQuestions = allQuestions.size();
-        int totalPages = (int) Math.ceil((double) totalQuestions / size);
-        
-        int start = page * size;
-        int end = Math.min(start + size, totalQuestions);
-        
-        List<Question> paginatedQuestions = allQuestions.subList(start, end);
-        
-        for (Question q : paginatedQuestions) {
-            List<Tag> questionTags = questionRepository.findTagsForQuestion(q.getId().intValue());
-            q.setTags(questionTags.stream().map(Tag::getTagName).collect(Collectors.joining(",")));
-            q.setTagList(questionTags);
-            q.setAnswers(answerRepository.findByQuestionId(q.getId().intValue()));
+        if (tags == null || tags.isEmpty()) {
+            return getAllQuestions(page, size);
         }
-        
+        int totalQuestions;
+        List<Question> paginatedQuestions;
+        if (tagIndex.isLoaded(TagIndex.Domain.QUESTION)) {
+            BitSet matches = tagIndex.matchAll(TagIndex.Domain.QUESTION, tags);
+            totalQuestions = matches.cardinality();
+            paginatedQuestions = questionRepository.findByIdsNewestFirst(TagIndex.pageDescending(matches, page * size, size));
+        } else {
+            totalQuestions = questionRepository.countByTags(tags);
+            paginatedQuestions = questionRepository.findPageByTags(tags, size, page * size);
+        }
+        hydrate(paginatedQuestions);
+        return pageResponse(paginatedQuestions, totalQuestions, page, size);
+    }
+
+    // Tags, notes and answers for the page's questions only, one query each
+    private void hydrate(List<Question> questions) {
+        questionRepository.attachTagsAndNotes(questions);
+        Map<Long, List<Answer>> answers = answerRepository.findByQuestionIds(
+            questions.stream().map(Question::getId).collect(Collectors.toList()));
+        for (Question q : questions) {
+            q.setAnswers(answers.getOrDefault(q.getId(), new ArrayList<>()));
+        }
+    }
+
+    private Map<String, Object> pageResponse(List<Question> questions, int totalQuestions, int page, int size) {
         Map<String, Object> response = new HashMap<>();
-        response.put("questions", paginatedQuestions);
+        response.put("questions", questions);
         response.put("currentPage", page);
-        response.put("totalPages", totalPages);
+        response.put("totalPages", (int) Math.ceil((double) totalQuestions / size));
         response.put("totalQuestions", totalQuestions);
         response.put("pageSize", size);
-        
         return response;
     }
 
@@ -119,8 +116,23 @@ public class QuestionService {
         return Optional.ofNullable(question);
     }
 
+    @Transactional
     public void deleteQuestion(int qId) {
         questionRepository.deleteQuestion(qId);
+        tagIndex.remove(TagIndex.Domain.QUESTION, qId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTagIndex() {
+        try {
+            int orphans = questionRepository.deleteOrphanTagLinks();
+            if (orphans > 0) {
+                logger.info("Deleted {} tag links of questions that no longer exist", orphans);
+            }
+            tagIndex.load(TagIndex.Domain.QUESTION, questionRepository.findAllTagNames());
+        } catch (Exception e) {
+            logger.warn("Could not load question tag index: {}", e.getMessage());
+        }
     }
 
     public void updateQuestion(Question question) {
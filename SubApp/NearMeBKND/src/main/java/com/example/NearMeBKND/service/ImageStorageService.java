@@ -0,0 +1,103 @@
+package com.example.NearMeBKND.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image files on local disk. An image is stored once under the SHA-256 of its
+ * bytes, so the hash doubles as a strong ETag and identical uploads share one file.
+ */
+@Service
+public class ImageStorageService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorageService.class);
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public ImageStorageService(@Value("${image.storage.dir:image-store}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Stores the bytes if no identical image exists yet and returns their content hash.
+     */
+    public String store(byte[] bytes) {
+        String hash = contentHash(bytes);
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, bytes);
+                moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image " + hash, e);
+        }
+        logger.debug("Stored image {} ({} bytes)", hash, bytes.length);
+        return hash;
+    }
+
+    /**
+     * Path of a stored image, or null if the hash is malformed or the file is missing.
+     */
+    public Path find(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        Path path = resolve(hash);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private Path resolve(String hash) {
+        // Two levels of fan-out keep directories small
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same image won the race; the content is identical
+        } catch (AtomicMoveNotSupportedException e) {
+            if (!Files.exists(target)) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the bytes; the key images are stored and cached under.
+     */
+    public static String contentHash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.NearMeBKND.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Downscaled JPEG variants of uploaded images, generated off the request thread on a bounded
+ * pool and cached on disk next to the image store. A variant that is not ready yet is simply
+ * not returned; callers fall back to the full image and generation is (re)scheduled. Images are
+ * only decoded after their header dimensions pass a pixel cap, and then subsampled while
+ * decoding, so a small file declaring a huge raster cannot exhaust the heap.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+    private static final float JPEG_QUALITY = 0.8f;
+
+    public enum Size {
+        THUMB(200), MEDIUM(800), FULL(0);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public static Size parse(String value) {
+            if (value == null || value.isBlank()) {
+                return FULL;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("size must be one of thumb, medium, full");
+            }
+        }
+    }
+
+    private final Path root;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(ImageStorageService imageStorageService,
+                               @Value("${image.variants.threads:2}") int threads,
+                               @Value("${image.variants.queue-capacity:64}") int queueCapacity,
+                               @Value("${image.variants.max-pixels:40000000}") long maxPixels) {
+        this.root = imageStorageService.getRoot().resolve("variants");
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Cached variant of the image with the given content hash, or null if the full image should be
+     * served. A missing variant is scheduled for generation from the supplied original bytes.
+     */
+    public Path findOrSchedule(String hash, Size size, Supplier<byte[]> original) {
+        if (size == Size.FULL) {
+            return null;
+        }
+        Path variant = variantPath(hash, size);
+        if (Files.isRegularFile(variant)) {
+            return variant;
+        }
+        generateAsync(hash, original);
+        return null;
+    }
+
+    /**
+     * Queues generation of every variant of an image. Does nothing if generation for this hash is
+     * already queued; drops the request (to be retried on a later read) if the queue is full.
+     */
+    public void generateAsync(String hash, Supplier<byte[]> original) {
+        if (!pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash, original.get());
+                } catch (Exception e) {
+                    logger.warn("Failed to generate variants for image {}: {}", hash, e.getMessage());
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            logger.debug("Variant queue full, skipping image {} for now", hash);
+        }
+    }
+
+    public void generateAsync(String hash, byte[] original) {
+        generateAsync(hash, () -> original);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(String hash, byte[] original) throws IOException {
+        if (original == null) {
+            return;
+        }
+        int largest = 0;
+        for (Size size : Size.values()) {
+            if (size != Size.FULL && !Files.isRegularFile(variantPath(hash, size))) {
+                largest = Math.max(largest, size.maxDimension);
+            }
+        }
+        if (largest == 0) {
+            return;
+        }
+        BufferedImage source = decode(hash, original, largest);
+        if (source == null) {
+            return;
+        }
+        for (Size size : Size.values()) {
+            if (size == Size.FULL || Files.isRegularFile(variantPath(hash, size))) {
+                continue;
+            }
+            writeJpeg(scale(source, size.maxDimension), variantPath(hash, size));
+        }
+        logger.debug("Generated variants for image {}", hash);
+    }
+
+    /**
+     * Decodes the first image, subsampled to no less than {@code targetDimension} on its longer
+     * side, or returns null if it cannot be decoded or its header declares more than
+     * {@link #maxPixels} pixels.
+     */
+    private BufferedImage decode(String hash, byte[] original, int targetDimension) throws IOException {
+        // An in-memory stream; ImageIO.createImageInputStream may spill to a temp file
+        try (ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                logger.debug("Image {} is not in a format ImageIO can decode; no variants", hash);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+                    logger.warn("Image {} is {}x{}, over the {} pixel limit; no variants", hash, width, height, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / targetDimension);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        double factor = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+        // JPEG has no alpha channel, so flatten onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path variantPath(String hash, Size size) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + size.name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.NearMeBKND.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag search shared by Q&A, business and meetup. Tag names are interned once into a
+ * dictionary of small int ids; each domain keeps an inverted index from tag id to a bitmap of
+ * entity ids, so multi-tag AND/OR queries are bitmap intersections and unions. The tag tables
+ * stay the source of truth: repositories mirror every tag write here, and each domain is loaded
+ * from its table at startup. Until a domain is loaded, callers fall back to SQL. Writes made
+ * inside a transaction are applied once it commits, so a rollback leaves the index untouched.
+ */
+@Service
+public class TagIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TagIndex.class);
+
+    public enum Domain { QUESTION, BUSINESS, MEETUP }
+
+    private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTagId = new AtomicInteger();
+    private final Map<Domain, Postings> postings = new EnumMap<>(Domain.class);
+
+    public TagIndex() {
+        for (Domain domain : Domain.values()) {
+            postings.put(domain, new Postings());
+        }
+    }
+
+    public boolean isLoaded(Domain domain) {
+        return postings.get(domain).loaded;
+    }
+
+    /**
+     * Adds the tags of every entity read from a domain's tag table and marks the domain loaded.
+     * Rows are merged with what writes have already recorded, so a write racing the load is kept.
+     */
+    public void load(Domain domain, Map<Integer, ? extends Collection<String>> tagsByEntity) {
+        Postings p = postings.get(domain);
+        p.lock.writeLock().lock();
+        try {
+            tagsByEntity.forEach((entityId, tags) -> p.add(entityId, ids(tags)));
+            p.loaded = true;
+        } finally {
+            p.lock.writeLock().unlock();
+        }
+        logger.info("Loaded {} tag index: {} entities, {} tags", domain, tagsByEntity.size(), p.byTag.size());
+    }
+
+    public void add(Domain domain, int entityId, Collection<String> tags) {
+        Postings p = postings.get(domain);
+        int[] tagIds = ids(tags);
+        afterCommit(() -> {
+            p.lock.writeLock().lock();
+            try {
+                p.add(entityId, tagIds);
+            } finally {
+                p.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void replace(Domain domain, int entityId, Collection<String> tags) {
+        Postings p = postings.get(domain);
+        int[] tagIds = ids(tags);
+        afterCommit(() -> {
+            p.lock.writeLock().lock();
+            try {
+                p.remove(entityId);
+                p.add(entityId, tagIds);
+            } finally {
+                p.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Domain domain, int entityId) {
+        Postings p = postings.get(domain);
+        afterCommit(() -> {
+            p.lock.writeLock().lock();
+            try {
+                p.remove(entityId);
+            } finally {
+                p.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Entity ids carrying every one of the tags. The returned bitmap is a copy the caller may modify.
+     */
+    public BitSet matchAll(Domain domain, Collection<String> tags) {
+        Postings p = postings.get(domain);
+        p.lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String tag : tags) {
+                BitSet entities = p.entities(tag);
+                if (entities == null) {
+                    return new BitSet();
+                }
+                if (result == null) {
+                    result = (BitSet) entities.clone();
+                } else {
+                    result.and(entities);
+                }
+            }
+            return result != null ? result : new BitSet();
+        } finally {
+            p.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entity ids carrying at least one of the tags. The returned bitmap is a copy the caller may modify.
+     */
+    public BitSet matchAny(Domain domain, Collection<String> tags) {
+        Postings p = postings.get(domain);
+        p.lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            for (String tag : tags) {
+                BitSet entities = p.entities(tag);
+                if (entities != null) {
+                    result.or(entities);
+                }
+            }
+            return result;
+        } finally {
+            p.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit set bits of the bitmap, highest first, after skipping offset of them. Entity ids
+     * are SQLite rowids assigned in insertion order, so this pages newest first.
+     */
+    public static List<Integer> pageDescending(BitSet ids, int offset, int limit) {
+        List<Integer> page = new ArrayList<>(Math.max(0, Math.min(limit, ids.cardinality())));
+        int skipped = 0;
+        for (int id = ids.length() - 1; id >= 0 && page.size() < limit; id = ids.previousSetBit(id - 1)) {
+            if (skipped++ >= offset) {
+                page.add(id);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Trimmed, non-empty, distinct tag names in their original order; empty for null.
+     */
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        List<String> result = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            String trimmed = tag != null ? tag.trim() : "";
+            if (!trimmed.isEmpty() && !result.contains(trimmed)) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private int[] ids(Collection<String> tags) {
+        List<String> names = normalize(tags);
+        int[] ids = new int[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dictionary.computeIfAbsent(names.get(i).intern(), name -> nextTagId.getAndIncrement());
+        }
+        return ids;
+    }
+
+    private final class Postings {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, BitSet> byTag = new HashMap<>();
+        // Forward index, so an entity's postings can be removed without scanning every tag
+        private final Map<Integer, int[]> byEntity = new HashMap<>();
+        private volatile boolean loaded;
+
+        private BitSet entities(String tag) {
+            Integer tagId = dictionary.get(tag.trim());
+            return tagId != null ? byTag.get(tagId) : null;
+        }
+
+        private void add(int entityId, int[] tagIds) {
+            if (tagIds.length == 0) {
+                return;
+            }
+            int[] existing = byEntity.get(entityId);
+            int[] merged = existing != null ? union(existing, tagIds) : tagIds;
+            for (int tagId : tagIds) {
+                byTag.computeIfAbsent(tagId, k -> new BitSet()).set(entityId);
+            }
+            byEntity.put(entityId, merged);
+        }
+
+        private void remove(int entityId) {
+            int[] tagIds = byEntity.remove(entityId);
+            if (tagIds == null) {
+                return;
+            }
+            for (int tagId : tagIds) {
+                BitSet entities = byTag.get(tagId);
+                if (entities != null) {
+                    entities.clear(entityId);
+                    if (entities.isEmpty()) {
+                        byTag.remove(tagId);
+                    }
+                }
+            }
+        }
+
+        private int[] union(int[] a, int[] b) {
+            return java.util.stream.IntStream.concat(java.util.Arrays.stream(a), java.util.Arrays.stream(b))
+                .distinct().toArray();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.NearMeBKND.util;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated feed. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,55 @@
+package com.example.NearMeBKND.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for feeds ordered by {@code created_at DESC, id DESC}. The cursor is the
+ * (created_at, id) of the last row returned; the next page starts strictly after it, so every
+ * page costs the same regardless of how deep the client has scrolled.
+ */
+public record FeedCursor(String createdAt, long id) {
+
+    public FeedCursor {
+        // A null key would be encoded as the text "null" and compared against it in SQL
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Cursor key has no created_at");
+        }
+    }
+
+    /**
+     * SQL predicate selecting rows after this cursor, binding {@link #createdAt()} twice then {@link #id()}.
+     */
+    public static String afterPredicate(String createdAtColumn, String idColumn) {
+        return "(" + createdAtColumn + " < ? OR (" + createdAtColumn + " = ? AND " + idColumn + " < ?))";
+    }
+
+    public Object[] afterParams() {
+        return new Object[]{createdAt, createdAt, id};
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor from a request. A blank value means "start from the newest row" and returns null.
+     */
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0 || raw.substring(0, separator).equals("null")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FeedCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
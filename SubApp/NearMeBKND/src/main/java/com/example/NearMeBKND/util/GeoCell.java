@@ -0,0 +1,118 @@
+package com.example.NearMeBKND.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash-style spatial cells. A coordinate is quantized to a 2^LEVELS x 2^LEVELS grid and the
+ * two axes are bit-interleaved (Z-order), so every coarser cell is one contiguous range of codes
+ * and a radius query becomes a handful of BETWEEN ranges on an indexed INTEGER column.
+ */
+public final class GeoCell {
+    public static final int LEVELS = 26;
+    private static final int MAX_QUERY_CELLS = 16;
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private GeoCell() {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(quantize(longitude, -180, 360, LEVELS), quantize(latitude, -90, 180, LEVELS));
+    }
+
+    /**
+     * Returns sorted, merged {@code [from, to]} code ranges covering every point within
+     * {@code radiusKm} of the given centre. Results are candidates only; callers must still
+     * check the exact distance.
+     */
+    public static List<long[]> coveringRanges(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+
+        // Longitude spans of the bounding box, split in two where it crosses the antimeridian
+        List<double[]> lonSpans = new ArrayList<>(2);
+        if (latitude - latDelta <= -90 || latitude + latDelta >= 90) {
+            // The circle contains a pole, so it reaches every longitude
+            lonSpans.add(new double[]{-180, 180});
+        } else {
+            // Widest longitude extent of a spherical cap, which lies poleward of its centre
+            double lonDelta = Math.toDegrees(Math.asin(
+                Math.sin(Math.toRadians(latDelta)) / Math.cos(Math.toRadians(latitude))));
+            double west = longitude - lonDelta;
+            double east = longitude + lonDelta;
+            if (east - west >= 360) {
+                lonSpans.add(new double[]{-180, 180});
+            } else if (west < -180) {
+                lonSpans.add(new double[]{west + 360, 180});
+                lonSpans.add(new double[]{-180, east});
+            } else if (east > 180) {
+                lonSpans.add(new double[]{west, 180});
+                lonSpans.add(new double[]{-180, east - 360});
+            } else {
+                lonSpans.add(new double[]{west, east});
+            }
+        }
+
+        // Deepest level at which the bounding box still spans only a few cells
+        int level = LEVELS;
+        long minY, maxY;
+        long[][] xSpans = new long[lonSpans.size()][];
+        while (true) {
+            minY = quantize(minLat, -90, 180, level);
+            maxY = quantize(maxLat, -90, 180, level);
+            long cells = 0;
+            for (int i = 0; i < xSpans.length; i++) {
+                xSpans[i] = new long[]{quantize(lonSpans.get(i)[0], -180, 360, level), quantize(lonSpans.get(i)[1], -180, 360, level)};
+                cells += (xSpans[i][1] - xSpans[i][0] + 1) * (maxY - minY + 1);
+            }
+            if (level == 0 || cells <= MAX_QUERY_CELLS) {
+                break;
+            }
+            level--;
+        }
+
+        int shift = 2 * (LEVELS - level);
+        List<long[]> ranges = new ArrayList<>();
+        for (long[] xSpan : xSpans) {
+            for (long x = xSpan[0]; x <= xSpan[1]; x++) {
+                for (long y = minY; y <= maxY; y++) {
+                    long cell = interleave(x, y);
+                    ranges.add(new long[]{cell << shift, ((cell + 1) << shift) - 1});
+                }
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static long quantize(double value, double min, double span, int level) {
+        long cells = 1L << level;
+        long cell = (long) Math.floor((value - min) / span * cells);
+        return Math.max(0, Math.min(cells - 1, cell));
+    }
+
+    private static long interleave(long x, long y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
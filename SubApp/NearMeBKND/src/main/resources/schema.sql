@@ -31,6 +31,9 @@ CREATE INDEX IF NOT EXISTS idx_clf_classified_latitude ON clf_classified(latitud
 CREATE INDEX IF NOT EXISTS idx_clf_classified_longitude ON clf_classified(longitude);
 CREATE INDEX IF NOT EXISTS idx_clf_classified_user_id ON clf_classified(user_id);
 
+-- SHA-256 of image_url, so image variants are found without reading the BLOB
+ALTER TABLE clf_classified ADD COLUMN image_hash TEXT;
+
 
 CREATE TABLE IF NOT EXISTS clf_classified_detail (
     id INTEGER PRIMARY KEY,
@@ -119,6 +122,11 @@ CREATE TABLE IF NOT EXISTS qna_question_tag (
     FOREIGN KEY (tagId) REFERENCES qna_tags(tagId) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_qna_questions_created_at ON qna_questions(created_at);
+CREATE INDEX IF NOT EXISTS idx_qna_question_tag_tagId ON qna_question_tag(tagId);
+CREATE INDEX IF NOT EXISTS idx_qna_note_question_id ON qna_note(question_id);
+CREATE INDEX IF NOT EXISTS idx_qna_answers_question_id ON qna_answers(question_id);
+
 -- Emergency Module Tables
 CREATE TABLE IF NOT EXISTS emergency_message (
     id INTEGER PRIMARY KEY,
@@ -146,6 +154,10 @@ CREATE TABLE IF NOT EXISTS message_type_map (
     FOREIGN KEY (message_id) REFERENCES emergency_message(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_message_type_map_type ON message_type_map(type, message_id);
+CREATE INDEX IF NOT EXISTS idx_message_type_map_message_id ON message_type_map(message_id);
+CREATE INDEX IF NOT EXISTS idx_emergency_message_latitude ON emergency_message(latitude);
+
 CREATE TABLE IF NOT EXISTS emergency_question (
     id INTEGER PRIMARY KEY,
     emergency_id INTEGER NOT NULL,
@@ -222,6 +234,15 @@ CREATE TABLE IF NOT EXISTS poll_votes (
     UNIQUE(user_id, question_id, option_id)
 );
 
+-- Vote count per option, kept in step with poll_votes by PollVoteService and rebuilt at startup
+CREATE TABLE IF NOT EXISTS poll_option_tally (
+    option_id INTEGER PRIMARY KEY,
+    question_id INTEGER NOT NULL,
+    vote_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_poll_option_tally_question_id ON poll_option_tally(question_id);
+
 
 -- Meetup Module Tables
 CREATE TABLE IF NOT EXISTS mtp_meetup (
@@ -255,6 +276,11 @@ CREATE INDEX idx_meetup_created_at ON mtp_meetup(created_at);
 CREATE INDEX IF NOT EXISTS idx_meetup_latitude ON mtp_meetup(latitude);
 CREATE INDEX IF NOT EXISTS idx_meetup_longitude ON mtp_meetup(longitude);
 CREATE INDEX IF NOT EXISTS idx_meetup_is_active ON mtp_meetup(is_active);
+-- Spatial cell for radius queries (see GeoCell)
+ALTER TABLE mtp_meetup ADD COLUMN geo_cell INTEGER;
+CREATE INDEX IF NOT EXISTS idx_mtp_meetup_geo_cell ON mtp_meetup(geo_cell);
+-- SHA-256 of image_url, so image variants are found without reading the BLOB
+ALTER TABLE mtp_meetup ADD COLUMN image_hash TEXT;
 -- CREATE INDEX idx_meetup_organizer_id ON mtp_meetup(organizer_id);
 
 CREATE TABLE IF NOT EXISTS mtp_meetup_tag (
@@ -283,6 +309,10 @@ CREATE TABLE IF NOT EXISTS mtp_note (
     FOREIGN KEY (meetup_id) REFERENCES mtp_meetup(id)
 );
 
+-- Batched child loading looks notes and questions up by meetup_id IN (...)
+CREATE INDEX IF NOT EXISTS idx_mtp_note_meetup_id ON mtp_note(meetup_id);
+CREATE INDEX IF NOT EXISTS idx_mtp_meetup_question_meetup_id ON mtp_meetup_question(meetup_id);
+
 -- Business Module Tables
 
 CREATE TABLE IF NOT EXISTS business (
@@ -310,6 +340,13 @@ CREATE INDEX idx_business_longitude ON business(longitude);
 CREATE INDEX idx_business_active ON business(active);
 CREATE INDEX idx_business_created_at ON business(created_at);
 
+-- Z-order spatial cell (see GeoCell); fails harmlessly once the column exists
+ALTER TABLE business ADD COLUMN geo_cell INTEGER;
+CREATE INDEX IF NOT EXISTS idx_business_geo_cell ON business(geo_cell);
+
+-- SHA-256 of the business image in the content-addressed image store (see ImageStorageService)
+ALTER TABLE business ADD COLUMN image_hash TEXT;
+
 
 CREATE TABLE IF NOT EXISTS business_tags (
     tag_id INTEGER PRIMARY KEY,
@@ -0,0 +1,98 @@
+package com.example.NearMeBKND.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageVariantService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void generatesVariantsWithinTheirMaxDimension() throws IOException {
+        service = new ImageVariantService(new ImageStorageService(root.toString()), 1, 4, 40_000_000);
+        byte[] png = png(3000, 1500);
+        String hash = ImageStorageService.contentHash(png);
+
+        service.generate(hash, png);
+
+        assertDimensions(hash, ImageVariantService.Size.THUMB, 200, 100);
+        assertDimensions(hash, ImageVariantService.Size.MEDIUM, 800, 400);
+    }
+
+    @Test
+    void keepsSmallImagesAtTheirOwnSize() throws IOException {
+        service = new ImageVariantService(new ImageStorageService(root.toString()), 1, 4, 40_000_000);
+        byte[] png = png(120, 90);
+        String hash = ImageStorageService.contentHash(png);
+
+        service.generate(hash, png);
+
+        assertDimensions(hash, ImageVariantService.Size.THUMB, 120, 90);
+        assertDimensions(hash, ImageVariantService.Size.MEDIUM, 120, 90);
+    }
+
+    @Test
+    void skipsImagesOverThePixelLimit() throws IOException {
+        service = new ImageVariantService(new ImageStorageService(root.toString()), 1, 4, 1_000_000);
+        byte[] png = png(2000, 1000);
+        String hash = ImageStorageService.contentHash(png);
+
+        service.generate(hash, png);
+
+        assertNull(variant(hash, ImageVariantService.Size.THUMB));
+        assertNull(variant(hash, ImageVariantService.Size.MEDIUM));
+    }
+
+    @Test
+    void skipsBytesThatAreNotAnImage() throws IOException {
+        service = new ImageVariantService(new ImageStorageService(root.toString()), 1, 4, 40_000_000);
+        byte[] text = "not an image".getBytes();
+        String hash = ImageStorageService.contentHash(text);
+
+        service.generate(hash, text);
+
+        assertNull(variant(hash, ImageVariantService.Size.THUMB));
+    }
+
+    private void assertDimensions(String hash, ImageVariantService.Size size, int width, int height) throws IOException {
+        Path variant = variant(hash, size);
+        assertNotNull(variant, size + " variant");
+        BufferedImage image = ImageIO.read(variant.toFile());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    // Supplies null so a missing variant is not regenerated behind the test's back
+    private Path variant(String hash, ImageVariantService.Size size) {
+        return service.findOrSchedule(hash, size, () -> null);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        // One bit per pixel keeps large test images cheap to build and tiny to encode
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
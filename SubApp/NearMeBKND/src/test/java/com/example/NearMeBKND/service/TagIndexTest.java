@@ -0,0 +1,154 @@
+package com.example.NearMeBKND.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagIndexTest {
+
+    private final TagIndex index = new TagIndex();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void matchAllIntersectsTags() {
+        index.add(TagIndex.Domain.QUESTION, 1, List.of("java", "spring"));
+        index.add(TagIndex.Domain.QUESTION, 2, List.of("java"));
+        index.add(TagIndex.Domain.QUESTION, 3, List.of("spring", "sql"));
+
+        assertEquals(bits(1, 2), index.matchAll(TagIndex.Domain.QUESTION, List.of("java")));
+        assertEquals(bits(1), index.matchAll(TagIndex.Domain.QUESTION, List.of("java", " spring ")));
+        assertEquals(bits(), index.matchAll(TagIndex.Domain.QUESTION, List.of("java", "unknown")));
+        assertEquals(bits(), index.matchAll(TagIndex.Domain.QUESTION, List.of()));
+    }
+
+    @Test
+    void matchAnyUnitesTags() {
+        index.add(TagIndex.Domain.BUSINESS, 1, List.of("cafe"));
+        index.add(TagIndex.Domain.BUSINESS, 2, List.of("bakery"));
+        index.add(TagIndex.Domain.BUSINESS, 3, List.of("gym"));
+
+        assertEquals(bits(1, 2), index.matchAny(TagIndex.Domain.BUSINESS, List.of("cafe", "bakery", "unknown")));
+        assertEquals(bits(), index.matchAny(TagIndex.Domain.BUSINESS, List.of("unknown")));
+    }
+
+    @Test
+    void keepsDomainsSeparate() {
+        index.add(TagIndex.Domain.MEETUP, 7, List.of("hiking"));
+
+        assertEquals(bits(7), index.matchAny(TagIndex.Domain.MEETUP, List.of("hiking")));
+        assertEquals(bits(), index.matchAny(TagIndex.Domain.BUSINESS, List.of("hiking")));
+    }
+
+    @Test
+    void replaceSwapsAnEntitysTags() {
+        index.add(TagIndex.Domain.MEETUP, 1, List.of("hiking", "outdoors"));
+
+        index.replace(TagIndex.Domain.MEETUP, 1, List.of("chess"));
+
+        assertEquals(bits(), index.matchAny(TagIndex.Domain.MEETUP, List.of("hiking", "outdoors")));
+        assertEquals(bits(1), index.matchAll(TagIndex.Domain.MEETUP, List.of("chess")));
+    }
+
+    @Test
+    void removeDropsAnEntityFromEveryTag() {
+        index.add(TagIndex.Domain.QUESTION, 1, List.of("java", "spring"));
+        index.add(TagIndex.Domain.QUESTION, 2, List.of("java"));
+
+        index.remove(TagIndex.Domain.QUESTION, 1);
+        index.remove(TagIndex.Domain.QUESTION, 99);
+
+        assertEquals(bits(2), index.matchAny(TagIndex.Domain.QUESTION, List.of("java", "spring")));
+    }
+
+    @Test
+    void loadMergesRowsAndMarksTheDomainLoaded() {
+        index.add(TagIndex.Domain.BUSINESS, 5, List.of("cafe"));
+        assertFalse(index.isLoaded(TagIndex.Domain.BUSINESS));
+
+        index.load(TagIndex.Domain.BUSINESS, Map.of(1, List.of("cafe"), 2, List.of("gym")));
+
+        assertTrue(index.isLoaded(TagIndex.Domain.BUSINESS));
+        assertFalse(index.isLoaded(TagIndex.Domain.QUESTION));
+        assertEquals(bits(1, 5), index.matchAll(TagIndex.Domain.BUSINESS, List.of("cafe")));
+    }
+
+    @Test
+    void pageDescendingPagesNewestFirst() {
+        BitSet ids = bits(1, 4, 9, 16, 25);
+
+        assertEquals(List.of(25, 16), TagIndex.pageDescending(ids, 0, 2));
+        assertEquals(List.of(9, 4), TagIndex.pageDescending(ids, 2, 2));
+        assertEquals(List.of(1), TagIndex.pageDescending(ids, 4, 2));
+        assertEquals(List.of(), TagIndex.pageDescending(ids, 5, 2));
+        assertEquals(List.of(), TagIndex.pageDescending(new BitSet(), 0, 10));
+        assertEquals(List.of(), TagIndex.pageDescending(ids, 0, 0));
+    }
+
+    @Test
+    void normalizeTrimsAndDeduplicates() {
+        assertEquals(List.of("java", "spring"), TagIndex.normalize(Arrays.asList(" java", "", null, "spring", "java ")));
+        assertEquals(List.of(), TagIndex.normalize(null));
+    }
+
+    @Test
+    void writesInATransactionApplyOnlyOnCommit() {
+        index.add(TagIndex.Domain.QUESTION, 1, List.of("java"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.add(TagIndex.Domain.QUESTION, 2, List.of("java"));
+        index.remove(TagIndex.Domain.QUESTION, 1);
+        assertEquals(bits(1), index.matchAny(TagIndex.Domain.QUESTION, List.of("java")));
+
+        commit();
+        assertEquals(bits(2), index.matchAny(TagIndex.Domain.QUESTION, List.of("java")));
+    }
+
+    @Test
+    void writesInARolledBackTransactionAreDropped() {
+        index.add(TagIndex.Domain.MEETUP, 1, List.of("hiking"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.replace(TagIndex.Domain.MEETUP, 1, List.of("chess"));
+        index.add(TagIndex.Domain.MEETUP, 2, List.of("hiking"));
+
+        rollback();
+        assertEquals(bits(1), index.matchAny(TagIndex.Domain.MEETUP, List.of("hiking", "chess")));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void rollback() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.NearMeBKND.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FeedCursorTest {
+
+    private static final RowMapper<FeedCursor> ROW = (rs, rowNum) -> new FeedCursor(rs.getString("created_at"), rs.getLong("id"));
+
+    @Test
+    void roundTripsThroughEncode() {
+        FeedCursor cursor = new FeedCursor("2024-05-01 10:15:30", 42);
+        assertEquals(cursor, FeedCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void roundTripsKeysContainingTheSeparator() {
+        FeedCursor cursor = new FeedCursor("2024|05|01", Long.MAX_VALUE);
+        assertEquals(cursor, FeedCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void blankCursorStartsFromTheNewestRow() {
+        assertNull(FeedCursor.decode(null));
+        assertNull(FeedCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encodeRaw("2024-05-01 10:15:30")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encodeRaw("|42")));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encodeRaw("2024-05-01|x")));
+    }
+
+    @Test
+    void rejectsNullKeys() {
+        assertThrows(IllegalArgumentException.class, () -> new FeedCursor(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> FeedCursor.decode(encodeRaw("null|1")));
+    }
+
+    @Test
+    void bindsCreatedAtTwiceThenId() {
+        assertEquals("(c < ? OR (c = ? AND i < ?))", FeedCursor.afterPredicate("c", "i"));
+        assertArrayEquals(new Object[]{"t", "t", 7L}, new FeedCursor("t", 7).afterParams());
+    }
+
+    @Test
+    void breaksCreatedAtTiesById() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource("jdbc:sqlite::memory:", true));
+        jdbcTemplate.execute("CREATE TABLE feed (id INTEGER PRIMARY KEY, created_at TEXT NOT NULL)");
+        // Six rows sharing two timestamps, paged two at a time so a page boundary splits each tie
+        for (long id = 1; id <= 6; id++) {
+            jdbcTemplate.update("INSERT INTO feed (id, created_at) VALUES (?, ?)",
+                id, id % 2 == 0 ? "2024-05-01 10:00:00" : "2024-05-01 11:00:00");
+        }
+
+        List<Long> seen = new ArrayList<>();
+        FeedCursor cursor = null;
+        while (true) {
+            List<FeedCursor> page = cursor == null
+                ? jdbcTemplate.query("SELECT created_at, id FROM feed ORDER BY created_at DESC, id DESC LIMIT 2", ROW)
+                : jdbcTemplate.query("SELECT created_at, id FROM feed WHERE " + FeedCursor.afterPredicate("created_at", "id")
+                    + " ORDER BY created_at DESC, id DESC LIMIT 2", ROW, cursor.afterParams());
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(row -> seen.add(row.id()));
+            cursor = FeedCursor.decode(page.get(page.size() - 1).encode());
+        }
+        assertEquals(List.of(5L, 3L, 1L, 6L, 4L, 2L), seen);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
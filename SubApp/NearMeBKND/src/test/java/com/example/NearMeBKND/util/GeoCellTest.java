@@ -0,0 +1,87 @@
+package com.example.NearMeBKND.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoCellTest {
+
+    @Test
+    void encodeSpansTheWholeCodeRange() {
+        assertEquals(0, GeoCell.encode(-90, -180));
+        assertEquals((1L << (2 * GeoCell.LEVELS)) - 1, GeoCell.encode(90, 180));
+        assertTrue(GeoCell.encode(0, -0.0001) < GeoCell.encode(0, 0.0001));
+    }
+
+    @Test
+    void rangesAreSortedAndDisjoint() {
+        List<long[]> ranges = GeoCell.coveringRanges(12.97, 77.59, 25);
+        for (int i = 0; i < ranges.size(); i++) {
+            assertTrue(ranges.get(i)[0] <= ranges.get(i)[1]);
+            if (i > 0) {
+                assertTrue(ranges.get(i - 1)[1] + 1 < ranges.get(i)[0]);
+            }
+        }
+    }
+
+    @Test
+    void coversPointsAcrossCellEdges() {
+        // Centres on the boundaries of the coarsest cells, where a box spans several of them
+        assertCovers(0, 0, 5);
+        assertCovers(0, 90, 50);
+        assertCovers(45, -90, 1);
+        assertCovers(-45, 0.000001, 200);
+        assertCovers(22.5, 11.25, 0.5);
+    }
+
+    @Test
+    void coversPointsAcrossTheAntimeridian() {
+        assertCovers(0, 179.99, 10);
+        assertCovers(-16.5, -179.95, 25);
+        assertCovers(65, 180, 100);
+        assertCovers(51.0, -179.0, 300);
+    }
+
+    @Test
+    void coversPointsNearThePoles() {
+        assertCovers(89.95, 10, 20);
+        assertCovers(-89.5, -120, 100);
+        assertCovers(80, 45, 500);
+    }
+
+    @Test
+    void coversRandomPoints() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            assertCovers(latitude, longitude, 0.1 + random.nextDouble() * 100);
+        }
+    }
+
+    /**
+     * Every point within the radius, by the same haversine distance the repositories check, must
+     * fall in one of the ranges.
+     */
+    private static void assertCovers(double latitude, double longitude, double radiusKm) {
+        List<long[]> ranges = GeoCell.coveringRanges(latitude, longitude, radiusKm);
+        Random random = new Random(Double.hashCode(latitude) * 31 + Double.hashCode(longitude));
+        double degrees = radiusKm / 100;
+        for (int i = 0; i < 2000; i++) {
+            double lat = Math.max(-90, Math.min(90, latitude + (random.nextDouble() * 2 - 1) * degrees));
+            double spread = Math.min(180, degrees / Math.max(1e-3, Math.cos(Math.toRadians(lat))));
+            // Wrapped back into [-180, 180)
+            double lon = ((longitude + (random.nextDouble() * 2 - 1) * spread + 540) % 360) - 180;
+            if (GeoUtils.haversine(latitude, longitude, lat, lon) > radiusKm) {
+                continue;
+            }
+            long code = GeoCell.encode(lat, lon);
+            assertTrue(ranges.stream().anyMatch(r -> r[0] <= code && code <= r[1]),
+                () -> String.format("(%f, %f) is within %f km of (%f, %f) but not covered", lat, lon, radiusKm, latitude, longitude));
+        }
+    }
+}
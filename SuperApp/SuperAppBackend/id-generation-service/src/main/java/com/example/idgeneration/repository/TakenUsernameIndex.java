@@ -0,0 +1,87 @@
+package com.example.idgeneration.repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Every username in the usernames table, held in memory so existence checks never reach SQLite.
+ * Names of the generated form, three upper-case letters and three digits, map onto a dense
+ * 26^3 * 1000 slot space and are one bit each (about 2.2 MB in all); anything else, such as
+ * lower-case or premium-word names, goes into a plain set.
+ */
+class TakenUsernameIndex {
+
+    static final int SLOTS = 26 * 26 * 26 * 1000;
+
+    private final AtomicLongArray bits = new AtomicLongArray((SLOTS + 63) / 64);
+    private final Set<String> others = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Adds names read from the table and marks the index loaded. Names added by writes that raced
+     * the load are kept.
+     */
+    void load(Collection<String> usernames) {
+        usernames.forEach(this::add);
+        loaded = true;
+    }
+
+    boolean contains(String username) {
+        int slot = slot(username);
+        if (slot < 0) {
+            return others.contains(username);
+        }
+        return (bits.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    void add(String username) {
+        int slot = slot(username);
+        if (slot < 0) {
+            others.add(username);
+            return;
+        }
+        long mask = 1L << slot;
+        bits.getAndUpdate(slot >>> 6, word -> word | mask);
+    }
+
+    void remove(String username) {
+        int slot = slot(username);
+        if (slot < 0) {
+            others.remove(username);
+            return;
+        }
+        long mask = ~(1L << slot);
+        bits.getAndUpdate(slot >>> 6, word -> word & mask);
+    }
+
+    /**
+     * Position of a name in the dense space, or -1 if it is not of the form AAA000.
+     */
+    static int slot(String username) {
+        if (username == null || username.length() != 6) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = username.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            slot = slot * 26 + (c - 'A');
+        }
+        for (int i = 3; i < 6; i++) {
+            char c = username.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            slot = slot * 10 + (c - '0');
+        }
+        return slot;
+    }
+}
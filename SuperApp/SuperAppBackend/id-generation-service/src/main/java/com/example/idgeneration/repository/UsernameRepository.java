@@ -2,19 +2,41 @@ package com.example.idgeneration.repository;
 
 import com.example.idgeneration.model.Username;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * The usernames table, with every taken name mirrored in a {@link TakenUsernameIndex} so existence
+ * checks are answered from memory once the index has been loaded at startup. Until then they fall
+ * back to SQL.
+ */
 @Repository
 @RequiredArgsConstructor
 public class UsernameRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(UsernameRepository.class);
+
+    // Well under SQLite's bound-parameter limit
+    private static final int IN_CHUNK_SIZE = 500;
+
     private final JdbcTemplate jdbcTemplate;
+    private final TakenUsernameIndex takenUsernames = new TakenUsernameIndex();
 
     private final RowMapper<Username> usernameRowMapper = (ResultSet rs, int rowNum) -> {
         Username username = new Username();
@@ -25,6 +47,13 @@ public class UsernameRepository {
         return username;
     };
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTakenUsernames() {
+        List<String> usernames = jdbcTemplate.queryForList("SELECT username FROM usernames", String.class);
+        takenUsernames.load(usernames);
+        logger.info("Loaded {} taken usernames", usernames.size());
+    }
+
     public Optional<Username> findByUsername(String username) {
         try {
             Username result = jdbcTemplate.queryForObject(
@@ -44,7 +73,8 @@ public class UsernameRepository {
                 username.getUsername(),
                 username.isAssigned()
         );
-        
+        inserted(username.getUsername());
+
         return findByUsername(username.getUsername())
                 .orElseThrow(() -> new RuntimeException("Failed to save username"));
     }
@@ -54,9 +84,13 @@ public class UsernameRepository {
                 "UPDATE usernames SET is_assigned = 1 WHERE username = ?",
                 username
         );
+        takenUsernames.add(username);
     }
 
     public boolean existsByUsername(String username) {
+        if (takenUsernames.isLoaded()) {
+            return takenUsernames.contains(username);
+        }
         Integer count = jdbcTemplate.queryForObject(
                 "SELECT COUNT(*) FROM usernames WHERE username = ?",
                 Integer.class,
@@ -64,4 +98,89 @@ public class UsernameRepository {
         );
         return count != null && count > 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Records the username as reserved but not yet assigned; false if it is already taken.
+     */
+    public boolean reserve(String username) {
+        boolean reserved = jdbcTemplate.update(
+                "INSERT OR IGNORE INTO usernames (username, is_assigned) VALUES (?, 0)",
+                username
+        ) == 1;
+        if (reserved) {
+            inserted(username);
+        }
+        return reserved;
+    }
+
+    /**
+     * The subset of the candidates already present, from memory or, before the index is loaded, in
+     * chunks of one IN query each.
+     */
+    public Set<String> findExisting(Collection<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        if (takenUsernames.isLoaded()) {
+            for (String username : usernames) {
+                if (takenUsernames.contains(username)) {
+                    existing.add(username);
+                }
+            }
+            return existing;
+        }
+        List<String> candidates = List.copyOf(usernames);
+        for (int from = 0; from < candidates.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from, Math.min(from + IN_CHUNK_SIZE, candidates.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT username FROM usernames WHERE username IN (" + placeholders + ")",
+                    String.class,
+                    chunk.toArray()
+            ));
+        }
+        return existing;
+    }
+
+    /**
+     * Deletes reservations older than the TTL that were never assigned and have no pending payment,
+     * returning the freed usernames.
+     */
+    public List<String> deleteExpiredReservations(long ttlMinutes) {
+        // created_at defaults to CURRENT_TIMESTAMP, which is UTC, so compare against SQLite's clock
+        List<String> deleted = jdbcTemplate.queryForList(
+                "DELETE FROM usernames WHERE is_assigned = 0 AND created_at < datetime('now', ?) " +
+                        "AND username NOT IN (SELECT username FROM transactions WHERE payment_status = 'PENDING') " +
+                        "RETURNING username",
+                String.class,
+                "-" + ttlMinutes + " minutes"
+        );
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleted.forEach(takenUsernames::remove);
+                }
+            });
+        } else {
+            deleted.forEach(takenUsernames::remove);
+        }
+        return deleted;
+    }
+
+    /**
+     * Marks a newly inserted name taken straight away, so a concurrent check cannot hand it out
+     * again, and frees it if the insert is rolled back.
+     */
+    private void inserted(String username) {
+        takenUsernames.add(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        takenUsernames.remove(username);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -14,16 +14,23 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class IdGenerationService {
 
+    // Candidates generated per suggestion needed; a round is one availability check
+    private static final int SUGGESTION_OVERSAMPLING = 3;
+    private static final int MAX_SUGGESTION_ROUNDS = 5;
+
     private final UsernameRepository usernameRepository;
+    private final UsernamePool usernamePool;
     private final Random random = new Random();
 
     @Value("${fancy.id.price.repeated}")
@@ -46,19 +53,26 @@ public class IdGenerationService {
 
     @Transactional
     public ApiResponse<String> generateUsername(GenerateUsernameRequest request) {
-        String username;
-        
-        // Keep generating until we find an available one
-        do {
-            username = generateRandomUsername(request);
-        } while (usernameRepository.existsByUsername(username));
-
-        // Save the username as not assigned
-        Username newUsername = Username.builder()
-                .username(username)
-                .isAssigned(false)
-                .build();
-        usernameRepository.save(newUsername);
+        String username = null;
+
+        // Plain random usernames come from the pre-checked pool; a pooled name can still have been
+        // taken directly since, in which case the reservation fails and the next one is tried
+        if (!hasCustomParts(request)) {
+            String candidate;
+            while (username == null && (candidate = usernamePool.poll()) != null) {
+                if (usernameRepository.reserve(candidate)) {
+                    username = candidate;
+                }
+            }
+        }
+
+        // Custom prefix or suffix, or the pool ran dry: keep generating until one can be reserved
+        while (username == null) {
+            String candidate = generateRandomUsername(request);
+            if (usernameRepository.reserve(candidate)) {
+                username = candidate;
+            }
+        }
 
         return ApiResponse.success("Username generated successfully", username);
     }
@@ -115,6 +129,12 @@ public class IdGenerationService {
         return ApiResponse.success("Suggested IDs generated successfully", response);
     }
 
+    private boolean hasCustomParts(GenerateUsernameRequest request) {
+        return request != null
+                && ((request.getPrefix() != null && !request.getPrefix().isEmpty())
+                || (request.getSuffix() != null && !request.getSuffix().isEmpty()));
+    }
+
     private String generateRandomUsername(GenerateUsernameRequest request) {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
         String digits = "0123456789";
@@ -263,21 +283,43 @@ public class IdGenerationService {
     }
 
     private List<String> generateFancyIds(int count) {
-        List<String> fancyIds = new ArrayList<>();
-        Set<String> generatedIds = new HashSet<>();
-
         // Premium patterns (e.g., VIP, CEO)
         String[] premiumWords = {"VIP", "CEO", "GOD", "BOSS", "KING", "QUEEN"};
-        
-        while (fancyIds.size() < count) {
-            String id = generateFancyId(premiumWords);
-            if (!generatedIds.contains(id) && !usernameRepository.existsByUsername(id)) {
-                fancyIds.add(id);
-                generatedIds.add(id);
+
+        return pickAvailable(count, () -> generateFancyId(premiumWords));
+    }
+
+    /**
+     * The first count distinct generated ids that are not taken. Candidates are generated several
+     * times over and checked together in one batch, so a round costs at most one query however
+     * many of them turn out to be taken; another round is only needed if too few were free.
+     */
+    private List<String> pickAvailable(int count, Supplier<String> generator) {
+        List<String> picked = new ArrayList<>(count);
+        Set<String> seen = new HashSet<>();
+
+        for (int round = 0; picked.size() < count && round < MAX_SUGGESTION_ROUNDS; round++) {
+            Set<String> candidates = new LinkedHashSet<>();
+            int wanted = (count - picked.size()) * SUGGESTION_OVERSAMPLING;
+            for (int i = 0; i < wanted * 2 && candidates.size() < wanted; i++) {
+                String id = generator.get();
+                if (seen.add(id)) {
+                    candidates.add(id);
+                }
+            }
+
+            Set<String> taken = usernameRepository.findExisting(candidates);
+            for (String id : candidates) {
+                if (picked.size() == count) {
+                    break;
+                }
+                if (!taken.contains(id)) {
+                    picked.add(id);
+                }
             }
         }
 
-        return fancyIds;
+        return picked;
     }
 
     private String generateFancyId(String[] premiumWords) {
@@ -342,17 +384,6 @@ public class IdGenerationService {
     }
 
     private List<String> generateRandomIds(int count) {
-        List<String> randomIds = new ArrayList<>();
-        Set<String> generatedIds = new HashSet<>();
-
-        while (randomIds.size() < count) {
-            String id = generateRandomUsername(null);
-            if (!generatedIds.contains(id) && !usernameRepository.existsByUsername(id)) {
-                randomIds.add(id);
-                generatedIds.add(id);
-            }
-        }
-
-        return randomIds;
+        return pickAvailable(count, () -> generateRandomUsername(null));
     }
 }
\ No newline at end of file
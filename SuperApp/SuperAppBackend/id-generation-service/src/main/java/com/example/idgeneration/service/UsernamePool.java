@@ -0,0 +1,183 @@
+package com.example.idgeneration.service;
+
+import com.example.idgeneration.repository.UsernameRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Random usernames already checked to be free, so generating one is a pop instead of a probe loop
+ * against the usernames table. A background worker tops the pool up to the high watermark whenever
+ * it drops below the low one, checking each batch of candidates with one query, and returns
+ * reservations that were never paid for to the pool once they pass their TTL.
+ */
+@Component
+public class UsernamePool {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernamePool.class);
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String DIGITS = "0123456789";
+    private static final int MAX_BATCH = 500;
+
+    private final UsernameRepository usernameRepository;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final long reservationTtlMinutes;
+    private final long reapIntervalMinutes;
+    private final BlockingQueue<String> pool;
+    private final Set<String> pooled = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-pool");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refillQueued = new AtomicBoolean();
+    // Only used on the worker thread
+    private final Random random = new Random();
+
+    public UsernamePool(UsernameRepository usernameRepository,
+                        @Value("${username.pool.low-watermark:200}") int lowWatermark,
+                        @Value("${username.pool.high-watermark:1000}") int highWatermark,
+                        @Value("${username.pool.reservation-ttl-minutes:60}") long reservationTtlMinutes,
+                        @Value("${username.pool.reap-interval-minutes:5}") long reapIntervalMinutes) {
+        if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+            throw new IllegalArgumentException("username.pool watermarks must satisfy 0 <= low < high");
+        }
+        this.usernameRepository = usernameRepository;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.reservationTtlMinutes = reservationTtlMinutes;
+        this.reapIntervalMinutes = reapIntervalMinutes;
+        this.pool = new ArrayBlockingQueue<>(highWatermark);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.scheduleWithFixedDelay(this::reapExpiredReservations, reapIntervalMinutes, reapIntervalMinutes, TimeUnit.MINUTES);
+        requestRefill();
+    }
+
+    /**
+     * A username that was free when it was pooled, or null if the pool is empty. The caller still
+     * has to reserve it, since it may have been taken directly since.
+     */
+    public String poll() {
+        String username = pool.poll();
+        if (username != null) {
+            pooled.remove(username);
+        }
+        if (pool.size() < lowWatermark) {
+            requestRefill();
+        }
+        return username;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void requestRefill() {
+        if (!refillQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                refillQueued.set(false);
+                refill();
+            });
+        } catch (RejectedExecutionException e) {
+            refillQueued.set(false);
+        }
+    }
+
+    private void refill() {
+        int added = 0;
+        try {
+            while (pool.size() < highWatermark) {
+                Set<String> candidates = new LinkedHashSet<>();
+                int wanted = Math.min(MAX_BATCH, highWatermark - pool.size());
+                // Oversample a little so one round usually fills the gap
+                while (candidates.size() < wanted + wanted / 4 + 1) {
+                    String candidate = randomUsername();
+                    if (!pooled.contains(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+                candidates.removeAll(usernameRepository.findExisting(candidates));
+                if (candidates.isEmpty()) {
+                    logger.warn("No free usernames in a batch of {}; the username space is nearly exhausted", wanted);
+                    break;
+                }
+                for (String candidate : candidates) {
+                    if (offer(candidate)) {
+                        added++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refill the username pool: {}", e.getMessage(), e);
+        }
+        logger.debug("Added {} usernames to the pool, now {}", added, pool.size());
+    }
+
+    private void reapExpiredReservations() {
+        try {
+            List<String> released = usernameRepository.deleteExpiredReservations(reservationTtlMinutes);
+            int returned = 0;
+            for (String username : released) {
+                if (offer(username)) {
+                    returned++;
+                }
+            }
+            if (!released.isEmpty()) {
+                logger.info("Released {} unused username reservations, {} returned to the pool", released.size(), returned);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to release expired username reservations: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean offer(String username) {
+        if (!pooled.add(username)) {
+            return false;
+        }
+        if (!pool.offer(username)) {
+            pooled.remove(username);
+            return false;
+        }
+        return true;
+    }
+
+    private String randomUsername() {
+        StringBuilder sb = new StringBuilder(6);
+        for (int i = 0; i < 3; i++) {
+            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        for (int i = 0; i < 3; i++) {
+            sb.append(DIGITS.charAt(random.nextInt(DIGITS.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -72,6 +72,35 @@ public class DatabaseConfig {
                     "expires_at TIMESTAMP NOT NULL" +
                     ")");
             logger.info("User sessions table initialized successfully");
+
+            // Create revoked_sessions table; its id is the revocation list version seen by the gateway
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS revoked_sessions (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "username TEXT NOT NULL," +
+                    "session_id TEXT NOT NULL," +
+                    "revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "expires_at TIMESTAMP NOT NULL" +
+                    ")");
+            logger.info("Revoked sessions table initialized successfully");
+
+            // Create notification_outbox table; rows are OTP and confirmation messages awaiting delivery
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_outbox (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "channel TEXT NOT NULL," +
+                    "kind TEXT NOT NULL," +
+                    "recipient TEXT NOT NULL," +
+                    "payload TEXT," +
+                    "status TEXT NOT NULL DEFAULT 'PENDING'," +
+                    "attempts INTEGER NOT NULL DEFAULT 0," +
+                    "next_attempt_at TIMESTAMP NOT NULL," +
+                    "expires_at TIMESTAMP," +
+                    "last_error TEXT," +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "finished_at TIMESTAMP" +
+                    ")");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_outbox_due " +
+                    "ON notification_outbox (status, channel, next_attempt_at)");
+            logger.info("Notification outbox table initialized successfully");
             
         } catch (Exception e) {
             logger.error("Error initializing database: {}", e.getMessage(), e);
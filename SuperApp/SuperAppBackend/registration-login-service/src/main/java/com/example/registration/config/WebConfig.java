@@ -1,12 +1,40 @@
 package com.example.registration.config;
 
+import com.example.registration.service.SessionRevocationService;
+import com.example.registration.service.SessionTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    public static final String REVOCATION_VERSION_HEADER = "X-Revocation-Version";
+
+    private final SessionTokenService sessionTokenService;
+    private final SessionRevocationService sessionRevocationService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!sessionTokenService.isEnabled()) {
+            return;
+        }
+        // Lets the gateway notice revocation list changes without polling for them
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(REVOCATION_VERSION_HEADER, Long.toString(sessionRevocationService.getVersion()));
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
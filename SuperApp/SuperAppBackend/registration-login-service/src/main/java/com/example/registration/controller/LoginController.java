@@ -3,7 +3,10 @@ package com.example.registration.controller;
 import com.example.registration.dto.ApiResponse;
 import com.example.registration.dto.LoginOtpVerificationRequest;
 import com.example.registration.dto.LoginRequest;
+import com.example.registration.config.WebConfig;
 import com.example.registration.service.LoginService;
+import com.example.registration.service.SessionRevocationService;
+import com.example.registration.service.SessionTokenService;
 import com.example.registration.util.CookieUtil;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -20,6 +23,8 @@ public class LoginController {
 
     private final LoginService loginService;
     private final CookieUtil cookieUtil;
+    private final SessionTokenService sessionTokenService;
+    private final SessionRevocationService sessionRevocationService;
 
     @PostMapping("/send-otp")
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(@Valid @RequestBody LoginRequest request) {
@@ -40,24 +45,49 @@ public class LoginController {
             // Set HTTP-only cookies
             cookieUtil.setCookie(httpResponse, "sessionId", sessionId);
             cookieUtil.setCookie(httpResponse, "username", username);
+            String sessionToken = (String) response.getData().get("sessionToken");
+            if (sessionToken != null) {
+                cookieUtil.setCookie(httpResponse, "sessionToken", sessionToken);
+            }
         }
         
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/continue-with-oldest-logout")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> continueWithOldestLogout(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> continueWithOldestLogout(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletResponse httpResponse) {
         ApiResponse<Map<String, Object>> response = loginService.continueWithOldestLogout(request);
+        advertiseRevocationVersion(httpResponse);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> logout(HttpServletResponse httpResponse) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> logout(
+            @CookieValue(name = "username", required = false) String username,
+            @CookieValue(name = "sessionId", required = false) String sessionId,
+            HttpServletResponse httpResponse) {
+        // Delete the session so any signed token issued for it is revoked
+        if (username != null && sessionId != null) {
+            loginService.logout(username, sessionId);
+            advertiseRevocationVersion(httpResponse);
+        }
+
         // Clear cookies
         cookieUtil.clearCookie(httpResponse, "sessionId");
         cookieUtil.clearCookie(httpResponse, "username");
+        cookieUtil.clearCookie(httpResponse, "sessionToken");
         
         Map<String, Object> response = Map.of("message", "Logged out successfully");
         return ResponseEntity.ok(ApiResponse.success("Logout successful", response));
     }
+
+    private void advertiseRevocationVersion(HttpServletResponse httpResponse) {
+        // Overrides the version set before the handler ran, so the gateway sees this revocation at once
+        if (sessionTokenService.isEnabled()) {
+            httpResponse.setHeader(WebConfig.REVOCATION_VERSION_HEADER,
+                    Long.toString(sessionRevocationService.getVersion()));
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.example.registration.controller;
 
 import com.example.registration.dto.ApiResponse;
 import com.example.registration.dto.SessionValidationRequest;
+import com.example.registration.model.RevokedSession;
+import com.example.registration.service.SessionRevocationService;
 import com.example.registration.service.SessionService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +22,7 @@ import java.util.Map;
 public class SessionController {
 
     private final SessionService sessionService;
+    private final SessionRevocationService sessionRevocationService;
 
     @PostMapping("/validate")
     public ResponseEntity<ApiResponse<Map<String, Object>>> validateSession(
@@ -52,4 +57,22 @@ public class SessionController {
         ApiResponse<Map<String, Object>> response = sessionService.validateSession(validationRequest);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/revocations")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRevocations(
+            @RequestParam(defaultValue = "0") long since) {
+        long version = sessionRevocationService.getVersion();
+        List<RevokedSession> revoked = sessionRevocationService.findRevokedSince(since);
+
+        List<Map<String, Object>> entries = revoked.stream()
+            .map(r -> Map.<String, Object>of(
+                "sessionId", r.getSessionId(),
+                "expiresAt", r.getExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond()))
+            .toList();
+        Map<String, Object> response = Map.of(
+            "version", version,
+            "revoked", entries
+        );
+        return ResponseEntity.ok(ApiResponse.success("Revoked sessions retrieved", response));
+    }
 }
\ No newline at end of file
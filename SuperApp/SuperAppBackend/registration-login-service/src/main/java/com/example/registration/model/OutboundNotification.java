@@ -0,0 +1,26 @@
+package com.example.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundNotification {
+    public enum Channel { EMAIL, WHATSAPP }
+
+    public enum Kind { REGISTRATION_OTP, LOGIN_OTP, CONFIRMATION }
+
+    private Long id;
+    private Channel channel;
+    private Kind kind;
+    private String recipient;
+    private String payload; // the OTP, or the username for confirmations
+    private int attempts;
+    private LocalDateTime expiresAt; // not sent after this; null for no limit
+}
@@ -0,0 +1,19 @@
+package com.example.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedSession {
+    private Long id; // doubles as the revocation list version
+    private String username;
+    private String sessionId;
+    private LocalDateTime expiresAt;
+}
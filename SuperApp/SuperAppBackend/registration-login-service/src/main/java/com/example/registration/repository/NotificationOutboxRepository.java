@@ -0,0 +1,92 @@
+package com.example.registration.repository;
+
+import com.example.registration.model.OutboundNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private static final DateTimeFormatter SQL_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final RowMapper<OutboundNotification> notificationRowMapper = (ResultSet rs, int rowNum) -> {
+        OutboundNotification notification = new OutboundNotification();
+        notification.setId(rs.getLong("id"));
+        notification.setChannel(OutboundNotification.Channel.valueOf(rs.getString("channel")));
+        notification.setKind(OutboundNotification.Kind.valueOf(rs.getString("kind")));
+        notification.setRecipient(rs.getString("recipient"));
+        notification.setPayload(rs.getString("payload"));
+        notification.setAttempts(rs.getInt("attempts"));
+        String expiresAt = rs.getString("expires_at");
+        notification.setExpiresAt(expiresAt != null ? LocalDateTime.parse(expiresAt, SQL_FORMATTER) : null);
+        return notification;
+    };
+
+    public void save(OutboundNotification notification) {
+        String sql = "INSERT INTO notification_outbox (channel, kind, recipient, payload, status, attempts, next_attempt_at, expires_at) " +
+                     "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+        jdbcTemplate.update(sql,
+            notification.getChannel().name(),
+            notification.getKind().name(),
+            notification.getRecipient(),
+            notification.getPayload(),
+            LocalDateTime.now().format(SQL_FORMATTER),
+            notification.getExpiresAt() != null ? notification.getExpiresAt().format(SQL_FORMATTER) : null);
+    }
+
+    /**
+     * Marks up to limit due notifications of the channel as SENDING and returns them, oldest first.
+     * Only one dispatcher claims at a time, so the select and update need no stronger isolation.
+     */
+    public List<OutboundNotification> claimDue(OutboundNotification.Channel channel, int limit) {
+        String sql = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND channel = ? AND next_attempt_at <= ? " +
+                     "ORDER BY id LIMIT ?";
+        List<OutboundNotification> due = jdbcTemplate.query(sql, notificationRowMapper,
+            channel.name(), LocalDateTime.now().format(SQL_FORMATTER), limit);
+        if (due.isEmpty()) {
+            return due;
+        }
+        String ids = String.join(",", Collections.nCopies(due.size(), "?"));
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'SENDING' WHERE id IN (" + ids + ")",
+            due.stream().map(OutboundNotification::getId).toArray());
+        return due;
+    }
+
+    public void markSent(long id, int attempts) {
+        // The payload is an OTP or username; no need to keep it once delivered
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'SENT', attempts = ?, payload = NULL, last_error = NULL, " +
+                            "finished_at = ? WHERE id = ?", attempts, LocalDateTime.now().format(SQL_FORMATTER), id);
+    }
+
+    public void reschedule(long id, int attempts, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'PENDING', attempts = ?, next_attempt_at = ?, last_error = ? " +
+                            "WHERE id = ?", attempts, nextAttemptAt.format(SQL_FORMATTER), error, id);
+    }
+
+    public void markFailed(long id, int attempts, String error) {
+        jdbcTemplate.update("UPDATE notification_outbox SET status = 'FAILED', attempts = ?, payload = NULL, last_error = ?, " +
+                            "finished_at = ? WHERE id = ?", attempts, error, LocalDateTime.now().format(SQL_FORMATTER), id);
+    }
+
+    /**
+     * Returns notifications left SENDING by a previous run to the queue; delivery is at least once.
+     */
+    public int releaseInFlight() {
+        return jdbcTemplate.update("UPDATE notification_outbox SET status = 'PENDING' WHERE status = 'SENDING'");
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM notification_outbox WHERE status IN ('SENT', 'FAILED') AND finished_at < ?",
+            cutoff.format(SQL_FORMATTER));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.registration.repository;
+
+import com.example.registration.model.RevokedSession;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class RevokedSessionRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedSessionRepository.class);
+    private final JdbcTemplate jdbcTemplate;
+    private static final DateTimeFormatter SQL_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final RowMapper<RevokedSession> revokedSessionRowMapper = (ResultSet rs, int rowNum) -> {
+        RevokedSession revoked = new RevokedSession();
+        revoked.setId(rs.getLong("id"));
+        revoked.setUsername(rs.getString("username"));
+        revoked.setSessionId(rs.getString("session_id"));
+        revoked.setExpiresAt(LocalDateTime.parse(rs.getString("expires_at"), SQL_FORMATTER));
+        return revoked;
+    };
+
+    public long save(RevokedSession revoked) {
+        String sql = "INSERT INTO revoked_sessions (username, session_id, expires_at) VALUES (?, ?, ?)";
+        logger.info("Revoking session for username: '{}', session_id: '{}'", revoked.getUsername(), revoked.getSessionId());
+        jdbcTemplate.update(sql, revoked.getUsername(), revoked.getSessionId(),
+            revoked.getExpiresAt().format(SQL_FORMATTER));
+        return findLatestVersion();
+    }
+
+    public List<RevokedSession> findSinceVersion(long version) {
+        String sql = "SELECT * FROM revoked_sessions WHERE id > ? AND expires_at > ? ORDER BY id";
+        return jdbcTemplate.query(sql, revokedSessionRowMapper, version, LocalDateTime.now().format(SQL_FORMATTER));
+    }
+
+    public long findLatestVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM revoked_sessions", Long.class);
+        return version != null ? version : 0;
+    }
+
+    public void deleteExpired() {
+        // Keep the newest row so the version (MAX(id)) never goes backwards
+        String sql = "DELETE FROM revoked_sessions WHERE expires_at < ? " +
+                     "AND id < (SELECT MAX(id) FROM revoked_sessions)";
+        jdbcTemplate.update(sql, LocalDateTime.now().format(SQL_FORMATTER));
+    }
+}
@@ -90,6 +90,22 @@ public class UserSessionRepository {
         return rowsAffected;
     }
 
+    public int[] refreshSessions(List<UserSession> sessions) {
+        String sql = "UPDATE user_sessions SET created_at = CURRENT_TIMESTAMP, expires_at = ? " +
+                     "WHERE username = ? AND session_id = ?";
+        logger.info("Refreshing {} sessions in batch", sessions.size());
+        List<Object[]> batchArgs = sessions.stream()
+            .map(session -> new Object[]{
+                session.getExpiresAt().format(SQL_FORMATTER),
+                session.getUsername(),
+                session.getSessionId()
+            })
+            .toList();
+        int[] rowsAffected = jdbcTemplate.batchUpdate(sql, batchArgs);
+        logger.info("Refreshed {} sessions in batch", rowsAffected.length);
+        return rowsAffected;
+    }
+
     public UserSession save(UserSession session) {
         String formattedExpiresAt = session.getExpiresAt().format(SQL_FORMATTER);
         logger.info("Saving session for username: '{}', session_id: '{}', expires_at: '{}'", 
@@ -110,6 +126,12 @@ public class UserSessionRepository {
         return jdbcTemplate.query(sql, sessionRowMapper, username, LocalDateTime.now());
     }
 
+    public Optional<UserSession> findOldestSession(String username) {
+        String sql = "SELECT * FROM user_sessions WHERE username = ? ORDER BY created_at ASC LIMIT 1";
+        List<UserSession> sessions = jdbcTemplate.query(sql, sessionRowMapper, username);
+        return sessions.stream().findFirst();
+    }
+
     public void deleteOldestSession(String username) {
         String sql = "DELETE FROM user_sessions WHERE id = (" +
                      "SELECT id FROM user_sessions WHERE username = ? ORDER BY created_at ASC LIMIT 1)";
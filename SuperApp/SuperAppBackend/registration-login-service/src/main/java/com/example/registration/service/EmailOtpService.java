@@ -1,5 +1,6 @@
 package com.example.registration.service;
 
+import com.example.registration.model.OutboundNotification;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,11 +10,25 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class EmailOtpService {
+public class EmailOtpService implements NotificationSender {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailOtpService.class);
     private final JavaMailSender mailSender;
 
+    @Override
+    public OutboundNotification.Channel channel() {
+        return OutboundNotification.Channel.EMAIL;
+    }
+
+    @Override
+    public void send(OutboundNotification notification) {
+        switch (notification.getKind()) {
+            case REGISTRATION_OTP -> sendOtp(notification.getRecipient(), notification.getPayload());
+            case CONFIRMATION -> sendConfirmation(notification.getRecipient(), notification.getPayload());
+            default -> throw new IllegalArgumentException("Email cannot send " + notification.getKind());
+        }
+    }
+
     public void sendOtp(String email, String otp) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
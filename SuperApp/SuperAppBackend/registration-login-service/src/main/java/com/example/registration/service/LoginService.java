@@ -4,6 +4,7 @@ import com.example.registration.dto.ApiResponse;
 import com.example.registration.dto.LoginOtpVerificationRequest;
 import com.example.registration.dto.LoginRequest;
 import com.example.registration.model.LoginSession;
+import com.example.registration.model.OutboundNotification;
 import com.example.registration.model.User;
 import com.example.registration.model.UserSession;
 import com.example.registration.repository.LoginSessionRepository;
@@ -31,7 +32,10 @@ public class LoginService {
     private final UserRepository userRepository;
     private final LoginSessionRepository loginSessionRepository;
     private final UserSessionRepository userSessionRepository;
-    private final WhatsAppOtpService whatsAppOtpService;
+    private final NotificationOutbox notificationOutbox;
+    private final SessionCache sessionCache;
+    private final SessionTokenService sessionTokenService;
+    private final SessionRevocationService sessionRevocationService;
 
     @Value("${otp.validity.minutes}")
     private int otpValidityMinutes;
@@ -75,9 +79,10 @@ public class LoginService {
             loginSessionRepository.save(session);
             logger.debug("Login session saved for user: {}", request.getUsername());
 
-            // Send OTP via WhatsApp
-            whatsAppOtpService.sendLoginOtp(user.getPhone(), otp);
-            logger.info("Login OTP sent successfully to user: {}", request.getUsername());
+            // Queue the OTP for WhatsApp; it is sent once this transaction commits
+            notificationOutbox.enqueue(OutboundNotification.Channel.WHATSAPP, OutboundNotification.Kind.LOGIN_OTP,
+                    user.getPhone(), otp, session.getExpiresAt());
+            logger.info("Login OTP queued for user: {}", request.getUsername());
             Map<String, Object> data = new HashMap<>();
             data.put("message", "OTP sent successfully");
             return ApiResponse.success("OTP sent to your WhatsApp", data);
@@ -128,6 +133,10 @@ public class LoginService {
             logger.info("Login successful for user: {}", request.getUsername());
             Map<String, Object> data = new HashMap<>();
             data.put("sessionId", sessionId);
+            if (sessionTokenService.isEnabled()) {
+                data.put("sessionToken", sessionTokenService.issueToken(
+                        request.getUsername(), sessionId, userSession.getExpiresAt()));
+            }
             return ApiResponse.success("Login successful", data);
             
         } catch (Exception e) {
@@ -139,8 +148,13 @@ public class LoginService {
     @Transactional
     public ApiResponse<Map<String, Object>> continueWithOldestLogout(LoginRequest request) {
         try {
-            // Delete oldest session
+            // Delete oldest session; flush cached refreshes first so created_at ordering is current
+            sessionCache.flushPendingRefreshes();
+            userSessionRepository.findOldestSession(request.getUsername())
+                    .ifPresent(oldest -> sessionRevocationService.revoke(
+                            oldest.getUsername(), oldest.getSessionId(), oldest.getExpiresAt()));
             userSessionRepository.deleteOldestSession(request.getUsername());
+            sessionCache.evictUser(request.getUsername());
 
             // Proceed with normal login flow
             return login(request);
@@ -153,7 +167,11 @@ public class LoginService {
     @Transactional
     public ApiResponse<Map<String, Object>> logout(String username, String sessionId) {
       try {
+            userSessionRepository.findByUsernameAndSessionId(username, sessionId)
+                    .ifPresent(session -> sessionRevocationService.revoke(
+                            username, sessionId, session.getExpiresAt()));
             userSessionRepository.deleteSession(username, sessionId);
+            sessionCache.evict(username, sessionId);
         
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Logged out successfully");
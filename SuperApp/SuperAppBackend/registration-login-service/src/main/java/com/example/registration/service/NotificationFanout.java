@@ -0,0 +1,163 @@
+package com.example.registration.service;
+
+import com.example.registration.model.OutboundNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends one message per channel concurrently and waits for all of them, each bounded by its
+ * channel's timeout budget, so the caller waits for the slowest channel rather than the sum.
+ * Every send is recorded as a {@value #SEND_TIMER} timer tagged with channel, kind and outcome.
+ */
+@Component
+public class NotificationFanout {
+
+    public static final String SEND_TIMER = "notification.send";
+
+    public enum Outcome { SENT, FAILED, TIMED_OUT, REJECTED }
+
+    public record Result(OutboundNotification notification, Outcome outcome, long latencyMs, String error) {
+        public boolean isSent() {
+            return outcome == Outcome.SENT;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanout.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboundNotification.Channel, NotificationSender> senders = new EnumMap<>(OutboundNotification.Channel.class);
+    private final Map<OutboundNotification.Channel, Long> timeoutsNanos = new EnumMap<>(OutboundNotification.Channel.class);
+    private final ThreadPoolExecutor executor;
+
+    public NotificationFanout(List<NotificationSender> senders, MeterRegistry meterRegistry, Environment environment,
+                              @Value("${notification.fanout.threads:8}") int threads) {
+        this.meterRegistry = meterRegistry;
+        for (NotificationSender sender : senders) {
+            String channel = sender.channel().name().toLowerCase(Locale.ROOT);
+            long timeoutMs = environment.getProperty("notification.fanout.timeout-ms." + channel, Long.class, 6000L);
+            this.senders.put(sender.channel(), sender);
+            this.timeoutsNanos.put(sender.channel(), TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        // Java 17 has no virtual threads; a small pool of daemon threads that idle out stands in
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 4),
+            runnable -> {
+                Thread thread = new Thread(runnable, "notification-fanout-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Sends every notification at once and returns their results in the same order. Never throws
+     * for a provider failure; a send that overruns its channel's budget is interrupted and reported
+     * as {@link Outcome#TIMED_OUT}.
+     */
+    public List<Result> send(List<OutboundNotification> notifications) {
+        List<Attempt> attempts = new ArrayList<>(notifications.size());
+        for (OutboundNotification notification : notifications) {
+            Attempt attempt = new Attempt(notification);
+            try {
+                attempt.future = executor.submit(attempt::run);
+            } catch (RejectedExecutionException e) {
+                attempt.report(Outcome.REJECTED, "Fan-out pool is full");
+            }
+            attempts.add(attempt);
+        }
+
+        List<Result> results = new ArrayList<>(attempts.size());
+        for (Attempt attempt : attempts) {
+            if (attempt.future != null) {
+                long remaining = attempt.startNanos + timeoutsNanos.get(attempt.notification.getChannel()) - System.nanoTime();
+                try {
+                    attempt.future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // Reported before cancelling, so the interrupted send cannot claim it as a failure
+                    attempt.report(Outcome.TIMED_OUT, "No response within the channel's time budget");
+                    attempt.future.cancel(true);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    attempt.report(Outcome.FAILED, "Interrupted while waiting");
+                    attempt.future.cancel(true);
+                } catch (ExecutionException e) {
+                    // The attempt reports its own failure
+                }
+            }
+            Result result = attempt.result();
+            results.add(result);
+            logger.debug("{} {} to {}: {} in {} ms", attempt.notification.getChannel(), attempt.notification.getKind(),
+                attempt.notification.getRecipient(), result.outcome(), result.latencyMs());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One send. Whichever of the sending thread and the waiting caller finishes first reports it,
+     * so a send that completes after its timeout is not recorded twice.
+     */
+    private final class Attempt {
+        private final OutboundNotification notification;
+        private final long startNanos = System.nanoTime();
+        private volatile Future<?> future;
+        private Result result;
+
+        private Attempt(OutboundNotification notification) {
+            this.notification = notification;
+        }
+
+        private Void run() {
+            try {
+                senders.get(notification.getChannel()).send(notification);
+                report(Outcome.SENT, null);
+            } catch (Exception e) {
+                report(Outcome.FAILED, e.getMessage());
+            }
+            return null;
+        }
+
+        // Synchronized so the caller never sees a result that the sending thread is still writing
+        private synchronized void report(Outcome outcome, String error) {
+            if (result != null) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            Timer.builder(SEND_TIMER)
+                .tag("channel", notification.getChannel().name().toLowerCase(Locale.ROOT))
+                .tag("kind", notification.getKind().name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            result = new Result(notification, outcome, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), error);
+        }
+
+        private synchronized Result result() {
+            return result;
+        }
+    }
+}
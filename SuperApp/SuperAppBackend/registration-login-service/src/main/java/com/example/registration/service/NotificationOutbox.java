@@ -0,0 +1,234 @@
+package com.example.registration.service;
+
+import com.example.registration.model.OutboundNotification;
+import com.example.registration.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable outbound-notification queue. Callers write a row to notification_outbox inside their
+ * own transaction and return; once it commits, a dispatcher claims due rows and hands them to
+ * each channel's {@link NotificationSender} on a pool sized to that provider's concurrency limit.
+ * Failed sends are retried with exponential backoff until max-attempts or the notification's
+ * expiry, so a slow SMTP server or Twilio call never holds a request thread or the SQLite
+ * connection.
+ */
+@Component
+public class NotificationOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboundNotification.Channel, Worker> workers = new EnumMap<>(OutboundNotification.Channel.class);
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(daemon("notification-dispatch"));
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+
+    @Value("${notification.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.backoff-initial-ms:2000}")
+    private long backoffInitialMs;
+
+    @Value("${notification.outbox.backoff-max-ms:60000}")
+    private long backoffMaxMs;
+
+    @Value("${notification.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public NotificationOutbox(NotificationOutboxRepository outboxRepository, List<NotificationSender> senders,
+                              MeterRegistry meterRegistry, Environment environment) {
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+        for (NotificationSender sender : senders) {
+            String channel = sender.channel().name().toLowerCase(Locale.ROOT);
+            int concurrency = environment.getProperty("notification.outbox.concurrency." + channel, Integer.class, 2);
+            Worker previous = workers.put(sender.channel(), new Worker(sender, concurrency));
+            if (previous != null) {
+                throw new IllegalStateException("More than one NotificationSender for channel " + sender.channel());
+            }
+        }
+    }
+
+    /**
+     * Queues a notification in the caller's transaction; it is dispatched after commit.
+     */
+    public void enqueue(OutboundNotification.Channel channel, OutboundNotification.Kind kind,
+                        String recipient, String payload, LocalDateTime expiresAt) {
+        if (!workers.containsKey(channel)) {
+            throw new IllegalStateException("No NotificationSender for channel " + channel);
+        }
+        outboxRepository.save(OutboundNotification.builder()
+            .channel(channel)
+            .kind(kind)
+            .recipient(recipient)
+            .payload(payload)
+            .expiresAt(expiresAt)
+            .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int released = outboxRepository.releaseInFlight();
+        if (released > 0) {
+            logger.info("Re-queued {} notifications left in flight by the previous run", released);
+        }
+        wake();
+    }
+
+    /**
+     * Safety net for retries that come due and for wake-ups lost to a full pool.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        dispatchDue();
+    }
+
+    @Scheduled(fixedRate = 60 * 60 * 1000)
+    public void deleteFinished() {
+        int deleted = outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        logger.debug("Deleted {} finished outbox notifications", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.values().forEach(worker -> worker.executor.shutdownNow());
+    }
+
+    private void wake() {
+        if (!dispatchQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                dispatchQueued.set(false);
+                dispatchDue();
+            });
+        } catch (RejectedExecutionException e) {
+            dispatchQueued.set(false);
+        }
+    }
+
+    private synchronized void dispatchDue() {
+        for (Worker worker : workers.values()) {
+            int free = worker.concurrency - worker.inFlight.get();
+            if (free <= 0) {
+                continue;
+            }
+            try {
+                for (OutboundNotification notification : outboxRepository.claimDue(worker.sender.channel(), free)) {
+                    worker.inFlight.incrementAndGet();
+                    worker.executor.execute(() -> deliver(worker, notification));
+                }
+            } catch (RejectedExecutionException e) {
+                // Shutting down; claimed rows are released on the next start
+                return;
+            } catch (Exception e) {
+                logger.error("Failed to claim {} notifications: {}", worker.sender.channel(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliver(Worker worker, OutboundNotification notification) {
+        int attempts = notification.getAttempts() + 1;
+        try {
+            if (notification.getExpiresAt() != null && LocalDateTime.now().isAfter(notification.getExpiresAt())) {
+                outboxRepository.markFailed(notification.getId(), notification.getAttempts(), "Expired before delivery");
+                logger.warn("Dropped expired {} {} notification {}", notification.getChannel(), notification.getKind(), notification.getId());
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                worker.sender.send(notification);
+                recordSend(notification, "sent", start);
+            } catch (Exception e) {
+                recordSend(notification, "failed", start);
+                if (attempts >= maxAttempts) {
+                    outboxRepository.markFailed(notification.getId(), attempts, e.getMessage());
+                    logger.error("Giving up on {} {} notification {} after {} attempts: {}",
+                        notification.getChannel(), notification.getKind(), notification.getId(), attempts, e.getMessage());
+                } else {
+                    long delayMs = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 20));
+                    outboxRepository.reschedule(notification.getId(), attempts,
+                        LocalDateTime.now().plusNanos(delayMs * 1_000_000), e.getMessage());
+                    logger.warn("{} {} notification {} failed (attempt {}), retrying in {} ms: {}",
+                        notification.getChannel(), notification.getKind(), notification.getId(), attempts, delayMs, e.getMessage());
+                }
+                return;
+            }
+            outboxRepository.markSent(notification.getId(), attempts);
+        } catch (Exception e) {
+            // Bookkeeping failed; the row stays SENDING and is re-queued on the next start
+            logger.error("Failed to update outbox notification {}: {}", notification.getId(), e.getMessage(), e);
+        } finally {
+            worker.inFlight.decrementAndGet();
+            wake();
+        }
+    }
+
+    private void recordSend(OutboundNotification notification, String outcome, long startNanos) {
+        Timer.builder(NotificationFanout.SEND_TIMER)
+            .tag("channel", notification.getChannel().name().toLowerCase(Locale.ROOT))
+            .tag("kind", notification.getKind().name().toLowerCase(Locale.ROOT))
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Worker {
+        private final NotificationSender sender;
+        private final int concurrency;
+        private final ExecutorService executor;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Worker(NotificationSender sender, int concurrency) {
+            this.sender = sender;
+            this.concurrency = concurrency;
+            this.executor = Executors.newFixedThreadPool(concurrency,
+                daemon("notification-" + sender.channel().name().toLowerCase(Locale.ROOT)));
+        }
+    }
+}
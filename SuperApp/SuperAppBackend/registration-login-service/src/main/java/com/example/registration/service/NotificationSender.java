@@ -0,0 +1,15 @@
+package com.example.registration.service;
+
+import com.example.registration.model.OutboundNotification;
+
+/**
+ * Delivers notifications over one channel. {@link NotificationOutbox} hands each queued
+ * notification to the sender registered for its channel, so a test can register a local
+ * stand-in bean in place of a real provider. A send that throws is retried with backoff.
+ */
+public interface NotificationSender {
+
+    OutboundNotification.Channel channel();
+
+    void send(OutboundNotification notification);
+}
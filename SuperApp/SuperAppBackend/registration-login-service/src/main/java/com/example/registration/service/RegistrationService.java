@@ -2,26 +2,34 @@ package com.example.registration.service;
 
 import com.example.registration.dto.*;
 import com.example.registration.model.Otp;
+import com.example.registration.model.OutboundNotification;
 import com.example.registration.model.User;
 import com.example.registration.model.UsernameValidationResult;
 import com.example.registration.repository.OtpRepository;
 import com.example.registration.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class RegistrationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationService.class);
+
     private final UserRepository userRepository;
     private final OtpRepository otpRepository;
-    private final EmailOtpService emailOtpService;
-    private final WhatsAppOtpService whatsAppOtpService;
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationFanout notificationFanout;
     private final IdGenerationApiClient idGenerationApiClient;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${otp.validity.minutes}")
     private int otpValidityMinutes;
@@ -62,9 +70,11 @@ public class RegistrationService {
                 .build();
         otpRepository.save(otp);
 
-        // Send OTPs
-        emailOtpService.sendOtp(request.getEmail(), emailOtp);
-        whatsAppOtpService.sendOtp(request.getPhone(), phoneOtp);
+        // Queue OTPs; they are sent once this transaction commits, off the request thread
+        notificationOutbox.enqueue(OutboundNotification.Channel.EMAIL, OutboundNotification.Kind.REGISTRATION_OTP,
+                request.getEmail(), emailOtp, otp.getExpiresAt());
+        notificationOutbox.enqueue(OutboundNotification.Channel.WHATSAPP, OutboundNotification.Kind.REGISTRATION_OTP,
+                request.getPhone(), phoneOtp, otp.getExpiresAt());
 
         return ApiResponse.success("OTP sent to your email and phone");
     }
@@ -143,22 +153,46 @@ public class RegistrationService {
         return ApiResponse.success("Payment initiated", paymentUrl);
     }
 
-    @Transactional
     public ApiResponse<String> completeRegistration(String email, String phone, String username) {
-        // Get the user
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        transactionTemplate.executeWithoutResult(status -> {
+            // Get the user
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Update username and activate the user
-        userRepository.updateUsername(user.getId(), username);
+            // Update username and activate the user
+            userRepository.updateUsername(user.getId(), username);
+        });
 
-        // Send confirmation email and WhatsApp message
-        emailOtpService.sendConfirmation(email, username);
-        whatsAppOtpService.sendConfirmation(phone, username);
+        // Send confirmation email and WhatsApp message together once the activation has committed,
+        // so the wait is the slower provider and the SQLite connection is not held meanwhile
+        sendConfirmations(List.of(
+                confirmation(OutboundNotification.Channel.EMAIL, email, username),
+                confirmation(OutboundNotification.Channel.WHATSAPP, phone, username)));
 
         return ApiResponse.success("Registration completed successfully");
     }
 
+    private void sendConfirmations(List<OutboundNotification> confirmations) {
+        for (NotificationFanout.Result result : notificationFanout.send(confirmations)) {
+            if (!result.isSent()) {
+                // The registration stands; hand the message to the outbox to retry
+                OutboundNotification failed = result.notification();
+                logger.warn("{} confirmation to {} {}: {}; queued for retry", failed.getChannel(), failed.getRecipient(),
+                        result.outcome(), result.error());
+                notificationOutbox.enqueue(failed.getChannel(), failed.getKind(), failed.getRecipient(), failed.getPayload(), null);
+            }
+        }
+    }
+
+    private static OutboundNotification confirmation(OutboundNotification.Channel channel, String recipient, String username) {
+        return OutboundNotification.builder()
+                .channel(channel)
+                .kind(OutboundNotification.Kind.CONFIRMATION)
+                .recipient(recipient)
+                .payload(username)
+                .build();
+    }
+
     private String generateOtp() {
         // Generate a 6-digit OTP
         return String.format("%06d", (int) (Math.random() * 1000000));
@@ -0,0 +1,211 @@
+package com.example.registration.service;
+
+import com.example.registration.model.UserSession;
+import com.example.registration.repository.UserSessionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of user sessions keyed by (username, sessionId).
+ * Sliding-expiry refreshes are recorded in memory and written back to
+ * user_sessions in batches by {@link #flushPendingRefreshes()}.
+ * <p>
+ * Evictions leave a short-lived tombstone carrying an eviction generation, so a session read
+ * from the database before a logout cannot be cached again after the logout evicted it.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+
+    private final UserSessionRepository userSessionRepository;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, UserSession> pendingRefreshes = new ConcurrentHashMap<>();
+    private final AtomicLong evictionGeneration = new AtomicLong();
+    private final Map<String, Tombstone> evictedSessions = new ConcurrentHashMap<>();
+    private final Map<String, Tombstone> evictedUsers = new ConcurrentHashMap<>();
+
+    @Value("${session.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${session.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public Optional<UserSession> get(String username, String sessionId) {
+        String key = key(username, sessionId);
+        CachedSession cached = sessions.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.isStale(System.currentTimeMillis())) {
+            sessions.remove(key, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.session);
+    }
+
+    /**
+     * Eviction generation to pass to {@link #put(UserSession, long)}, taken before reading the
+     * session from the database.
+     */
+    public long readStamp() {
+        return evictionGeneration.get();
+    }
+
+    /**
+     * Caches a session read from the database, unless it was evicted after {@code readStamp}
+     * was taken.
+     */
+    public void put(UserSession session, long readStamp) {
+        String key = key(session.getUsername(), session.getSessionId());
+        if (evictedSince(key, session.getUsername(), readStamp)) {
+            logger.debug("Session evicted during its read, not caching it for username: {}", session.getUsername());
+            return;
+        }
+        if (sessions.size() >= maxEntries) {
+            evictStaleEntries();
+            if (sessions.size() >= maxEntries) {
+                logger.debug("Session cache full ({} entries), not caching session for username: {}",
+                    sessions.size(), session.getUsername());
+                return;
+            }
+        }
+        // A refresh that has not been flushed yet is newer than what the database returned
+        UserSession pending = pendingRefreshes.get(key);
+        if (pending != null && pending.getExpiresAt().isAfter(session.getExpiresAt())) {
+            session.setExpiresAt(pending.getExpiresAt());
+        }
+        CachedSession cached = new CachedSession(session, System.currentTimeMillis() + ttlSeconds * 1000);
+        sessions.put(key, cached);
+        // Evictions record their tombstone before removing, so one that raced the put is seen here
+        if (evictedSince(key, session.getUsername(), readStamp)) {
+            sessions.remove(key, cached);
+        }
+    }
+
+    /**
+     * Slides the expiry of a cached session and queues the change for the next batch flush.
+     * Repeated refreshes of the same session between flushes collapse into one UPDATE.
+     */
+    public void refresh(String username, String sessionId, LocalDateTime newExpiresAt) {
+        String key = key(username, sessionId);
+        CachedSession cached = sessions.get(key);
+        if (cached != null) {
+            cached.session.setExpiresAt(newExpiresAt);
+        }
+        pendingRefreshes.put(key, UserSession.builder()
+            .username(username)
+            .sessionId(sessionId)
+            .expiresAt(newExpiresAt)
+            .build());
+    }
+
+    public void evict(String username, String sessionId) {
+        String key = key(username, sessionId);
+        evictedSessions.put(key, new Tombstone(evictionGeneration.incrementAndGet(), System.currentTimeMillis()));
+        sessions.remove(key);
+        pendingRefreshes.remove(key);
+    }
+
+    public void evictUser(String username) {
+        String prefix = username + "\u0000";
+        evictedUsers.put(username, new Tombstone(evictionGeneration.incrementAndGet(), System.currentTimeMillis()));
+        sessions.keySet().removeIf(key -> key.startsWith(prefix));
+        pendingRefreshes.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        sessions.values().removeIf(cached -> cached.session.getExpiresAt().isBefore(now));
+    }
+
+    @Scheduled(fixedDelayString = "${session.cache.flush-interval-ms:5000}")
+    public void flushPendingRefreshes() {
+        if (pendingRefreshes.isEmpty()) {
+            return;
+        }
+        List<UserSession> batch = new ArrayList<>(pendingRefreshes.size());
+        Iterator<Map.Entry<String, UserSession>> it = pendingRefreshes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, UserSession> entry = it.next();
+            // remove(key, value) keeps a refresh that raced in after we read the entry
+            if (pendingRefreshes.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            userSessionRepository.refreshSessions(batch);
+            logger.debug("Flushed {} session refreshes", batch.size());
+        } catch (Exception e) {
+            logger.error("Error flushing {} session refreshes: {}", batch.size(), e.getMessage(), e);
+            for (UserSession refresh : batch) {
+                pendingRefreshes.putIfAbsent(key(refresh.getUsername(), refresh.getSessionId()), refresh);
+            }
+        }
+    }
+
+    /**
+     * Drops tombstones old enough that no read which started before them can still be running.
+     */
+    @Scheduled(fixedDelayString = "${session.cache.flush-interval-ms:5000}")
+    public void pruneTombstones() {
+        long cutoff = System.currentTimeMillis() - ttlSeconds * 1000;
+        evictedSessions.values().removeIf(tombstone -> tombstone.evictedAt < cutoff);
+        evictedUsers.values().removeIf(tombstone -> tombstone.evictedAt < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushPendingRefreshes();
+    }
+
+    private boolean evictedSince(String key, String username, long readStamp) {
+        Tombstone session = evictedSessions.get(key);
+        Tombstone user = evictedUsers.get(username);
+        return (session != null && session.generation > readStamp) || (user != null && user.generation > readStamp);
+    }
+
+    private void evictStaleEntries() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(cached -> cached.isStale(now));
+    }
+
+    private static String key(String username, String sessionId) {
+        return username + "\u0000" + sessionId;
+    }
+
+    private static final class CachedSession {
+        private final UserSession session;
+        private final long staleAt;
+
+        private CachedSession(UserSession session, long staleAt) {
+            this.session = session;
+            this.staleAt = staleAt;
+        }
+
+        private boolean isStale(long now) {
+            return now >= staleAt;
+        }
+    }
+
+    private record Tombstone(long generation, long evictedAt) {
+    }
+}
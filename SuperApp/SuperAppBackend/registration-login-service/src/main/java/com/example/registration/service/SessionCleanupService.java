@@ -13,11 +13,16 @@ public class SessionCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionCleanupService.class);
     private final UserSessionRepository userSessionRepository;
+    private final SessionCache sessionCache;
+    private final SessionRevocationService sessionRevocationService;
 
     @Scheduled(fixedRate = 24 * 60 * 60 * 1000) // Run every 24 hours
     public void cleanupExpiredSessions() {
         logger.info("Starting cleanup of expired sessions");
+        sessionCache.flushPendingRefreshes();
         userSessionRepository.deleteExpiredSessions();
+        sessionCache.evictExpired();
+        sessionRevocationService.deleteExpired();
         logger.info("Completed cleanup of expired sessions");
     }
 }
\ No newline at end of file
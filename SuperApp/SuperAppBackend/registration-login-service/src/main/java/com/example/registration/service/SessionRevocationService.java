@@ -0,0 +1,58 @@
+package com.example.registration.service;
+
+import com.example.registration.model.RevokedSession;
+import com.example.registration.repository.RevokedSessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revocation list for signed session tokens. Every revocation bumps the list version, which is
+ * advertised to the gateway so it only re-fetches the list when something changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRevocationService.class);
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final SessionTokenService sessionTokenService;
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadVersion() {
+        version.set(revokedSessionRepository.findLatestVersion());
+        logger.info("Session revocation list at version {}", version.get());
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void revoke(String username, String sessionId, LocalDateTime expiresAt) {
+        if (!sessionTokenService.isEnabled()) {
+            return;
+        }
+        long newVersion = revokedSessionRepository.save(RevokedSession.builder()
+                .username(username)
+                .sessionId(sessionId)
+                .expiresAt(expiresAt)
+                .build());
+        version.accumulateAndGet(newVersion, Math::max);
+    }
+
+    public List<RevokedSession> findRevokedSince(long sinceVersion) {
+        return revokedSessionRepository.findSinceVersion(sinceVersion);
+    }
+
+    public void deleteExpired() {
+        revokedSessionRepository.deleteExpired();
+    }
+}
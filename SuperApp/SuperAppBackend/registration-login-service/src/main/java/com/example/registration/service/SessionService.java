@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -20,15 +19,23 @@ import java.util.Optional;
 public class SessionService {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
+    private static final int SESSION_VALIDITY_HOURS = 48;
     private final UserSessionRepository userSessionRepository;
+    private final SessionCache sessionCache;
 
-    @Transactional
+    // Not @Transactional: a cache hit must not check out the single pooled SQLite connection
     public ApiResponse<Map<String, Object>> validateSession(SessionValidationRequest request) {
         try {
-            Optional<UserSession> sessionOpt = userSessionRepository.findByUsernameAndSessionId(
-                request.getUsername(), 
-                request.getSessionId()
-            );
+            Optional<UserSession> sessionOpt = sessionCache.get(request.getUsername(), request.getSessionId());
+            if (sessionOpt.isEmpty()) {
+                // Taken before the read so a logout that lands during it keeps the session out of the cache
+                long readStamp = sessionCache.readStamp();
+                sessionOpt = userSessionRepository.findByUsernameAndSessionId(
+                    request.getUsername(), 
+                    request.getSessionId()
+                );
+                sessionOpt.ifPresent(session -> sessionCache.put(session, readStamp));
+            }
 
             Map<String, Object> response = new HashMap<>();
 
@@ -41,13 +48,15 @@ public class SessionService {
             UserSession session = sessionOpt.get();
 
             if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+                sessionCache.evict(request.getUsername(), request.getSessionId());
                 response.put("valid", false);
                 response.put("message", "Session expired. Please login again.");
                 return ApiResponse.success("Session status retrieved", response);
             }
 
-            // Refresh session
-            userSessionRepository.refreshSession(request.getUsername(), request.getSessionId());
+            // Refresh session; the database write is batched by SessionCache
+            sessionCache.refresh(request.getUsername(), request.getSessionId(),
+                LocalDateTime.now().plusHours(SESSION_VALIDITY_HOURS));
             
             response.put("valid", true);
             response.put("message", "Session refreshed successfully");
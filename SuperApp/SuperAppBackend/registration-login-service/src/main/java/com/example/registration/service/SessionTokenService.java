@@ -0,0 +1,58 @@
+package com.example.registration.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Issues compact HMAC-SHA256 signed session tokens of the form
+ * {@code base64url(username|sessionId|expiresEpochSeconds).base64url(signature)}.
+ * The gateway verifies them locally with the same shared secret.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${session.token.enabled:false}")
+    private boolean enabled;
+
+    @Value("${session.token.secret:}")
+    private String secret;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String issueToken(String username, String sessionId, LocalDateTime expiresAt) {
+        if (!enabled) {
+            throw new IllegalStateException("Session token mode is disabled");
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("session.token.secret must be set when session tokens are enabled");
+        }
+        long expiresEpochSeconds = expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        String payload = ENCODER.encodeToString(
+            (username + "|" + sessionId + "|" + expiresEpochSeconds).getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            String signature = ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+            logger.debug("Issued session token for username: {}", username);
+            return payload + "." + signature;
+        } catch (Exception e) {
+            logger.error("Error signing session token: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to issue session token: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.registration.service;
 
+import com.example.registration.model.OutboundNotification;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
@@ -10,7 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-public class WhatsAppOtpService {
+public class WhatsAppOtpService implements NotificationSender {
 
     private static final Logger logger = LoggerFactory.getLogger(WhatsAppOtpService.class);
 
@@ -33,6 +34,20 @@ public class WhatsAppOtpService {
         }
     }
 
+    @Override
+    public OutboundNotification.Channel channel() {
+        return OutboundNotification.Channel.WHATSAPP;
+    }
+
+    @Override
+    public void send(OutboundNotification notification) {
+        switch (notification.getKind()) {
+            case REGISTRATION_OTP -> sendOtp(notification.getRecipient(), notification.getPayload());
+            case LOGIN_OTP -> sendLoginOtp(notification.getRecipient(), notification.getPayload());
+            case CONFIRMATION -> sendConfirmation(notification.getRecipient(), notification.getPayload());
+        }
+    }
+
     public void sendOtp(String phoneNumber, String otp) {
         try {
             Message message = Message.creator(